@@ -0,0 +1,169 @@
+package io.joshuasalcedo.commonlibs.autoconfigure;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.joshuasalcedo.commonlibs.domain.BadRequestException;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogAppender;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogCborEncoder;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogDispatcher;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEvent;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogFilter;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogSubscriber;
+import io.joshuasalcedo.commonlibs.properties.SseLiveLogProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Configuration for live log streaming over a raw WebSocket in binary frames.
+ * <p>
+ * Unlike the STOMP endpoint there is no SockJS or STOMP framing: every binary message is one
+ * {@link LiveLogCborEncoder CBOR frame} of events. Sessions subscribe to the same dispatcher as
+ * the SSE endpoints and take the same filter parameters in the query string.
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({WebSocketConfigurer.class, CBORFactory.class})
+@ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = {"enabled", "binary-web-socket-enabled"}, havingValue = "true", matchIfMissing = true)
+public class BinaryWebSocketLiveLogAutoConfiguration implements WebSocketConfigurer {
+
+    private static final String SUBSCRIBER_ATTRIBUTE = BinaryLogSubscriber.class.getName();
+
+    /**
+     * Longest reason a close frame can carry
+     */
+    private static final int MAX_CLOSE_REASON_LENGTH = 120;
+
+    /**
+     * Strings a session remembers before its table is started over
+     */
+    private static final int MAX_SESSION_STRINGS = 4096;
+
+    private final SseLiveLogProperties properties;
+    private final LiveLogAppender appender;
+    private final LiveLogDispatcher dispatcher;
+
+    public BinaryWebSocketLiveLogAutoConfiguration(LiveLogAppender appender, SseLiveLogProperties properties) {
+        this.properties = properties;
+        this.appender = appender;
+        this.dispatcher = appender.getDispatcher();
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(new BinaryLogHandler(), properties.getBinaryWebSocketPath())
+                .setAllowedOrigins("*");
+    }
+
+    /**
+     * Subscribes every session with the filter given in its query string:
+     * {@code level}, {@code logger}, {@code excludeLogger}, {@code regex}, {@code contains},
+     * {@code since} and {@code lastEventId}, as for {@code /logs/stream}.
+     */
+    private class BinaryLogHandler extends BinaryWebSocketHandler {
+
+        @Override
+        public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+            MultiValueMap<String, String> params = session.getUri() != null
+                    ? UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams()
+                    : new LinkedMultiValueMap<>();
+            LiveLogFilter filter;
+            Long lastEventId;
+            try {
+                filter = LiveLogFilter.of(param(params, "level"), params(params, "logger"),
+                        params(params, "excludeLogger"), param(params, "regex"), param(params, "contains"),
+                        param(params, "since"));
+                String resumeFrom = param(params, "lastEventId");
+                lastEventId = resumeFrom != null ? Long.valueOf(resumeFrom) : null;
+            } catch (BadRequestException | IllegalArgumentException e) {
+                session.close(CloseStatus.BAD_DATA.withReason(closeReason(e.getMessage())));
+                return;
+            }
+
+            long replayEnd = appender.getLogEvents().nextSequence();
+            long replayStart = appender.replayStart(replayEnd, lastEventId,
+                    filter.getSinceMillis() != null || properties.isSendRecentLogsOnConnect());
+            BinaryLogSubscriber subscriber = new BinaryLogSubscriber(session, replayStart, replayEnd, filter);
+            session.getAttributes().put(SUBSCRIBER_ATTRIBUTE, subscriber);
+            if (!dispatcher.subscribe(subscriber)) {
+                session.close(CloseStatus.SERVICE_OVERLOAD.withReason("Too many live log subscribers"));
+            }
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+            if (session.getAttributes().get(SUBSCRIBER_ATTRIBUTE) instanceof BinaryLogSubscriber subscriber) {
+                dispatcher.unsubscribe(subscriber);
+            }
+        }
+    }
+
+    private static String param(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        return value != null ? URLDecoder.decode(value, StandardCharsets.UTF_8) : null;
+    }
+
+    private static List<String> params(MultiValueMap<String, String> params, String name) {
+        List<String> values = params.get(name);
+        return values != null
+                ? values.stream().map(value -> URLDecoder.decode(value, StandardCharsets.UTF_8)).toList()
+                : null;
+    }
+
+    private static String closeReason(String message) {
+        if (message == null) {
+            return "Invalid parameter";
+        }
+        return message.length() > MAX_CLOSE_REASON_LENGTH ? message.substring(0, MAX_CLOSE_REASON_LENGTH) : message;
+    }
+
+    /**
+     * Subscriber that forwards events from its own cursor to one WebSocket session
+     */
+    private class BinaryLogSubscriber extends LiveLogSubscriber {
+        private final WebSocketSession session;
+        private final LiveLogCborEncoder encoder = new LiveLogCborEncoder(MAX_SESSION_STRINGS);
+
+        BinaryLogSubscriber(WebSocketSession session, long cursor, long replayEnd, LiveLogFilter filter) {
+            super(cursor, replayEnd, filter);
+            this.session = session;
+        }
+
+        @Override
+        protected void deliver(List<LiveLogEvent> events) throws IOException {
+            session.sendMessage(new BinaryMessage(encoder.frame(events)));
+        }
+
+        @Override
+        protected void heartbeat() throws IOException {
+            session.sendMessage(new PingMessage());
+        }
+
+        @Override
+        protected void close(Throwable cause) {
+            try {
+                // Without a cause the lifetime ended or the server stops; either way the client should reconnect
+                session.close(cause != null ? CloseStatus.SERVER_ERROR : CloseStatus.SERVICE_RESTARTED);
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package io.joshuasalcedo.commonlibs.autoconfigure;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.joshuasalcedo.commonlibs.controller.LiveLogQueryController;
+import io.joshuasalcedo.commonlibs.controller.LiveLogStatsController;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogAppender;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogBackpressure;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogCompactor;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogConnectionLimits;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogDispatcher;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEncoder;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEvent;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogIndex;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogMetrics;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStats;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStatsPublisher;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LogEventRingBuffer;
+import io.joshuasalcedo.commonlibs.domain.logging.live.OffHeapLogStore;
+import io.joshuasalcedo.commonlibs.properties.SseLiveLogProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Shared core of live log streaming: the in-memory log buffer, the appender that fills it and
+ * the dispatcher that fans events out. The servlet and reactive SSE endpoints, the binary
+ * WebSocket endpoint and the STOMP log destinations all build on it, so it is set up while any
+ * of them is enabled.
+ */
+@Configuration
+@EnableConfigurationProperties(SseLiveLogProperties.class)
+@Conditional(LiveLogAutoConfiguration.OnLiveLogTransport.class)
+public class LiveLogAutoConfiguration {
+
+    /**
+     * Matches if the SSE and binary endpoints or the STOMP log destinations are enabled
+     */
+    static class OnLiveLogTransport extends AnyNestedCondition {
+
+        OnLiveLogTransport() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "enabled", havingValue = "true", matchIfMissing = true)
+        static class SseEnabled {
+        }
+
+        @ConditionalOnProperty(prefix = "app.live-logs", name = "enabled", havingValue = "true", matchIfMissing = true)
+        static class StompEnabled {
+        }
+    }
+
+    /**
+     * Events handed to a subscriber at once when batching is disabled; they are still sent as
+     * individual events, but written with a single flush
+     */
+    private static final int UNBATCHED_CHUNK_SIZE = 256;
+
+    /**
+     * Size of the direct buffers that off-heap history is allocated from
+     */
+    private static final int OFF_HEAP_SEGMENT_SIZE = 1024 * 1024;
+
+    private final SseLiveLogProperties properties;
+    private final LiveLogEncoder encoder;
+    private LiveLogAppender appender;
+
+    public LiveLogAutoConfiguration(ObjectMapper objectMapper, SseLiveLogProperties properties) {
+        this.properties = properties;
+        this.encoder = new LiveLogEncoder(objectMapper.getFactory(),
+                properties.getTimestampFormat(),
+                properties.getEventName());
+    }
+
+    @PostConstruct
+    public void init() {
+        LogEventRingBuffer<LiveLogEvent> logEvents = new LogEventRingBuffer<>(properties.getMaxLogsInMemory(),
+                properties.getMaxHistoryBytes(), LiveLogEvent::retainedSize);
+        LiveLogCompactor compactor = new LiveLogCompactor(
+                properties.isIncludeExceptions(),
+                properties.isIncludeStackTraces(),
+                properties.isOffHeap() ? new OffHeapLogStore(OFF_HEAP_SEGMENT_SIZE) : null);
+        LiveLogBackpressure backpressure = new LiveLogBackpressure(
+                properties.getSlowConsumerPolicy(),
+                properties.getMaxLagEvents(),
+                properties.getSampleRate(),
+                properties.getMaxBufferedBytes());
+        LiveLogConnectionLimits limits = new LiveLogConnectionLimits(
+                properties.getHeartbeatIntervalMs(),
+                properties.getMaxConnectionLifetimeMs(),
+                properties.getMaxSubscribers());
+        LiveLogDispatcher dispatcher = properties.isBatchEnabled()
+                ? new LiveLogDispatcher(logEvents, "live-logs",
+                        properties.getBatchMaxEvents(), properties.getBatchFlushIntervalMs(), backpressure, limits)
+                : new LiveLogDispatcher(logEvents, "live-logs", UNBATCHED_CHUNK_SIZE, 0, backpressure, limits);
+
+        LiveLogStats stats = properties.isStatsEnabled()
+                ? new LiveLogStats(properties.getStatsBucketMs(), properties.getStatsBuckets(), properties.getStatsMaxLoggers())
+                : null;
+
+        appender = new LiveLogAppender(logEvents, dispatcher, compactor, stats);
+        appender.start();
+
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger rootLogger = loggerContext.getLogger(properties.getRootLoggerName());
+        rootLogger.addAppender(appender);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (appender != null) {
+            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+            Logger rootLogger = loggerContext.getLogger(properties.getRootLoggerName());
+            rootLogger.detachAppender(appender);
+
+            appender.stop();
+        }
+    }
+
+    /**
+     * Appender holding the recent logs that live log endpoints replay and stream
+     */
+    @Bean
+    public LiveLogAppender liveLogAppender() {
+        return appender;
+    }
+
+    /**
+     * Encoder producing the JSON payloads and SSE frames shared by all clients
+     */
+    @Bean
+    public LiveLogEncoder liveLogEncoder() {
+        return encoder;
+    }
+
+    /**
+     * Micrometer gauges and counters for live log subscribers
+     */
+    @Bean
+    public LiveLogMetrics liveLogMetrics() {
+        return new LiveLogMetrics(appender.getDispatcher(), "hub");
+    }
+
+    /**
+     * Search index over the recent logs, evicted together with them
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "index-enabled", havingValue = "true", matchIfMissing = true)
+    public LiveLogIndex liveLogIndex() {
+        return new LiveLogIndex(appender.getLogEvents());
+    }
+
+    /**
+     * Controller for searching the recent logs
+     */
+    @Bean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "index-enabled", havingValue = "true", matchIfMissing = true)
+    public LiveLogQueryController liveLogQueryController(LiveLogIndex liveLogIndex) {
+        return new LiveLogQueryController(liveLogIndex, encoder, properties.getQueryMaxResults());
+    }
+
+    /**
+     * Rolling log counts per level and logger, updated by the appender
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "stats-enabled", havingValue = "true", matchIfMissing = true)
+    public LiveLogStats liveLogStats() {
+        return appender.getStats();
+    }
+
+    /**
+     * Pushes the rolling log counts to /logs/stats/stream clients
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "stats-enabled", havingValue = "true", matchIfMissing = true)
+    public LiveLogStatsPublisher liveLogStatsPublisher(LiveLogStats liveLogStats) {
+        LiveLogStatsPublisher publisher = new LiveLogStatsPublisher(liveLogStats,
+                properties.getStatsPushIntervalMs(), properties.getMaxSubscribers());
+        publisher.start();
+        return publisher;
+    }
+
+    /**
+     * Controller for the rolling log counts
+     */
+    @Bean
+    @ConditionalOnWebApplication
+    @ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "stats-enabled", havingValue = "true", matchIfMissing = true)
+    public LiveLogStatsController liveLogStatsController(LiveLogStats liveLogStats) {
+        return new LiveLogStatsController(liveLogStats);
+    }
+}
@@ -1,11 +1,15 @@
 package io.joshuasalcedo.commonlibs.autoconfigure;
 
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import io.joshuasalcedo.commonlibs.domain.logging.LogStormFilter;
 import io.joshuasalcedo.commonlibs.domain.logging.LoggingAspect;
 import io.joshuasalcedo.commonlibs.domain.logging.LoggingFactory;
 import io.joshuasalcedo.commonlibs.domain.logging.LoggingManager;
 import io.joshuasalcedo.commonlibs.domain.logging.LoggingService;
 import io.joshuasalcedo.commonlibs.properties.LoggingProperties;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -74,4 +78,23 @@ public class LoggingAutoConfiguration {
         return filter;
     }
 
+    /**
+     * Install the LogStormFilter so repeated messages are collapsed before they reach any appender.
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.joshuasalcedo.common.logging", name = "storm-suppression", havingValue = "true", matchIfMissing = true)
+    public LogStormFilter logStormFilter() {
+        LogStormFilter filter = new LogStormFilter(
+                properties.getStormWindowMs(),
+                Level.toLevel(properties.getStormMinLevel(), Level.WARN),
+                properties.getStormAllowedRepeats(),
+                properties.getStormMaxTrackedMessages());
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        filter.setContext(loggerContext);
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+        return filter;
+    }
+
 }
\ No newline at end of file
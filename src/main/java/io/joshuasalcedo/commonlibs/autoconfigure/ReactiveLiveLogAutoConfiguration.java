@@ -0,0 +1,195 @@
+package io.joshuasalcedo.commonlibs.autoconfigure;
+
+import io.joshuasalcedo.commonlibs.controller.ReactiveLiveLogsController;
+import io.joshuasalcedo.commonlibs.domain.ResourceNotFoundException;
+import io.joshuasalcedo.commonlibs.domain.ServiceUnavailableException;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogAppender;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogDispatcher;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEncoder;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEvent;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogFilter;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStatistics;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStatsPublisher;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogSubscriber;
+import io.joshuasalcedo.commonlibs.properties.SseLiveLogProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration for reactive (WebFlux) Server-Sent Events live log streaming.
+ * Clients are fed from the same appender as the servlet endpoint, but no thread is held
+ * per connection and Reactive Streams demand is honoured: a client that stops requesting
+ * falls behind and is handled by the slow-consumer policy instead of buffering events.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass(name = "reactor.core.publisher.Flux")
+@ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveLiveLogAutoConfiguration {
+
+    private final SseLiveLogProperties properties;
+    private final LiveLogEncoder encoder;
+    private final LiveLogAppender appender;
+    private final LiveLogDispatcher dispatcher;
+    private final LiveLogStatsPublisher statsPublisher;
+
+    public ReactiveLiveLogAutoConfiguration(LiveLogAppender appender, LiveLogEncoder encoder,
+                                            SseLiveLogProperties properties,
+                                            ObjectProvider<LiveLogStatsPublisher> statsPublisher) {
+        this.properties = properties;
+        this.encoder = encoder;
+        this.appender = appender;
+        this.dispatcher = appender.getDispatcher();
+        this.statsPublisher = statsPublisher.getIfAvailable();
+    }
+
+    /**
+     * Stream of live log events matching the given filter.
+     * History is replayed by the dispatcher as the client requests it, followed by live events.
+     *
+     * @param filter      server-side subscription filter
+     * @param lastEventId ID of the last event the client received; only newer events are replayed
+     * @throws ServiceUnavailableException if the maximum number of subscribers is reached
+     */
+    public Flux<ServerSentEvent<String>> streamLogs(LiveLogFilter filter, Long lastEventId) {
+        Flux<ServerSentEvent<String>> events = Flux.create(sink -> {
+            long replayEnd = appender.getLogEvents().nextSequence();
+            long replayStart = appender.replayStart(replayEnd, lastEventId,
+                    filter.getSinceMillis() != null || properties.isSendRecentLogsOnConnect());
+            ReactiveLogSubscriber subscriber = new ReactiveLogSubscriber(sink, replayStart, replayEnd, filter);
+
+            // New demand wakes the dispatcher; cancellation or completion unsubscribes
+            sink.onRequest(n -> dispatcher.signal());
+            sink.onDispose(() -> dispatcher.unsubscribe(subscriber));
+            if (!dispatcher.subscribe(subscriber)) {
+                // Nothing has been written yet, so the response still becomes a 503
+                sink.error(new ServiceUnavailableException("Too many live log subscribers"));
+            }
+        });
+        if (properties.getTimeoutMs() > 0 && properties.getTimeoutMs() < Long.MAX_VALUE) {
+            events = events.take(Duration.ofMillis(properties.getTimeoutMs()));
+        }
+        return events;
+    }
+
+    /**
+     * Stream of the rolling log counts, pushed periodically as {@code stats} events.
+     * An aggregate the client has not requested is skipped; the next one supersedes it anyway.
+     *
+     * @param windowMs   length of the aggregated window
+     * @param topLoggers number of loggers with the most events to include
+     * @throws ResourceNotFoundException   if statistics are disabled
+     * @throws ServiceUnavailableException if the maximum number of subscribers is reached
+     */
+    public Flux<ServerSentEvent<LiveLogStatistics>> streamStats(long windowMs, int topLoggers) {
+        if (statsPublisher == null) {
+            return Flux.error(new ResourceNotFoundException("Live log statistics are disabled"));
+        }
+        Flux<ServerSentEvent<LiveLogStatistics>> stats = Flux.create(sink -> {
+            LiveLogStatsPublisher.Sink statsSink = new LiveLogStatsPublisher.Sink() {
+                @Override
+                public void send(LiveLogStatistics statistics) {
+                    if (!sink.isCancelled() && sink.requestedFromDownstream() > 0) {
+                        sink.next(ServerSentEvent.builder(statistics).event("stats").build());
+                    }
+                }
+
+                @Override
+                public void close() {
+                    sink.complete();
+                }
+            };
+            sink.onDispose(() -> statsPublisher.unsubscribe(statsSink));
+            if (!statsPublisher.subscribe(statsSink, windowMs, topLoggers)) {
+                sink.error(new ServiceUnavailableException("Too many live log statistics subscribers"));
+            }
+        });
+        if (properties.getTimeoutMs() > 0 && properties.getTimeoutMs() < Long.MAX_VALUE) {
+            stats = stats.take(Duration.ofMillis(properties.getTimeoutMs()));
+        }
+        return stats;
+    }
+
+    /**
+     * Subscriber that emits events from its own cursor into one reactive sink,
+     * never more than the downstream requested
+     */
+    private class ReactiveLogSubscriber extends LiveLogSubscriber {
+        private final FluxSink<ServerSentEvent<String>> sink;
+
+        ReactiveLogSubscriber(FluxSink<ServerSentEvent<String>> sink, long cursor, long replayEnd,
+                              LiveLogFilter filter) {
+            super(cursor, replayEnd, filter);
+            this.sink = sink;
+        }
+
+        @Override
+        protected long getDemand() {
+            long requested = sink.requestedFromDownstream();
+            if (!properties.isBatchEnabled()) {
+                return requested;
+            }
+            // Each requested element is a whole batch
+            long batchSize = dispatcher.getMaxBatchSize();
+            return requested > Long.MAX_VALUE / batchSize ? Long.MAX_VALUE : requested * batchSize;
+        }
+
+        @Override
+        protected void deliver(List<LiveLogEvent> events) {
+            if (sink.isCancelled()) {
+                return;
+            }
+            if (properties.isBatchEnabled()) {
+                LiveLogEvent last = events.get(events.size() - 1);
+                sink.next(ServerSentEvent.builder(new String(encoder.jsonArray(events), StandardCharsets.UTF_8))
+                        .id(Long.toString(last.getSequence()))
+                        .event(properties.getEventName() + "-batch")
+                        .build());
+                return;
+            }
+            for (LiveLogEvent event : events) {
+                // The JSON is encoded once per event and shared by all clients
+                sink.next(ServerSentEvent.builder(new String(encoder.json(event), StandardCharsets.UTF_8))
+                        .id(Long.toString(event.getSequence()))
+                        .event(properties.getEventName())
+                        .build());
+            }
+        }
+
+        @Override
+        protected void heartbeat() {
+            // A comment still counts against demand; a client that requests nothing gets nothing
+            if (!sink.isCancelled() && sink.requestedFromDownstream() > 0) {
+                sink.next(ServerSentEvent.<String>builder().comment("keepalive").build());
+            }
+        }
+
+        @Override
+        protected void close(Throwable cause) {
+            if (cause != null) {
+                sink.error(cause);
+            } else {
+                sink.complete();
+            }
+        }
+    }
+
+    /**
+     * Controller for accessing the live logs via reactive SSE
+     */
+    @Bean
+    public ReactiveLiveLogsController reactiveLiveLogsController() {
+        return new ReactiveLiveLogsController(this);
+    }
+}
@@ -1,171 +1,195 @@
 package io.joshuasalcedo.commonlibs.autoconfigure;
 
-import ch.qos.logback.classic.Logger;
-import ch.qos.logback.classic.LoggerContext;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.AppenderBase;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.joshuasalcedo.commonlibs.controller.SseLiveLogsController;
+import io.joshuasalcedo.commonlibs.domain.ResourceNotFoundException;
+import io.joshuasalcedo.commonlibs.domain.ServiceUnavailableException;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogAppender;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogDispatcher;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEncoder;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEvent;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogFilter;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStatistics;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStatsPublisher;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogSubscriber;
 import io.joshuasalcedo.commonlibs.properties.SseLiveLogProperties;
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
-import org.slf4j.LoggerFactory;
-import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
 
 /**
  * Configuration for Server-Sent Events based live log streaming.
  * This approach is simpler than WebSockets and works with most modern browsers.
  */
 @Configuration
-@EnableConfigurationProperties(SseLiveLogProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "io.joshuasalcedo.sse-live-logs", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class SseLiveLogAutoConfiguration {
 
-    private final ObjectMapper objectMapper;
-    private MemoryAppender memoryAppender;
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("hh:mm:ss a")
-            .withZone(ZoneId.systemDefault());
-
-    public SseLiveLogAutoConfiguration(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    /**
+     * SSE comment frame sent to idle connections; ignored by EventSource
+     */
+    private static final byte[] HEARTBEAT_FRAME = ":keepalive\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final SseLiveLogProperties properties;
+    private final LiveLogEncoder encoder;
+    private final LiveLogAppender appender;
+    private final LiveLogDispatcher dispatcher;
+    private final LiveLogStatsPublisher statsPublisher;
+
+    public SseLiveLogAutoConfiguration(LiveLogAppender appender, LiveLogEncoder encoder,
+                                       SseLiveLogProperties properties,
+                                       ObjectProvider<LiveLogStatsPublisher> statsPublisher) {
+        this.properties = properties;
+        this.encoder = encoder;
+        this.appender = appender;
+        this.dispatcher = appender.getDispatcher();
+        this.statsPublisher = statsPublisher.getIfAvailable();
     }
 
-    @PostConstruct
-    public void init() {
-        memoryAppender = new MemoryAppender();
-        memoryAppender.start();
-
-        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-        Logger rootLogger = loggerContext.getLogger("ROOT");
-        rootLogger.addAppender(memoryAppender);
+    /**
+     * Register a new SSE emitter for a client connection
+     */
+    public SseEmitter registerEmitter() {
+        return registerEmitter(LiveLogFilter.ACCEPT_ALL, null);
     }
 
-    @PreDestroy
-    public void destroy() {
-        if (memoryAppender != null) {
-            memoryAppender.stop();
+    /**
+     * Register a new SSE emitter that only receives events matching the given filter.
+     *
+     * @param filter      server-side subscription filter
+     * @param lastEventId ID of the last event the client received; only newer events are replayed
+     * @throws ServiceUnavailableException if the maximum number of subscribers is reached
+     */
+    public SseEmitter registerEmitter(LiveLogFilter filter, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeoutMs());
+
+        // The dispatcher replays the history in pre-encoded chunks off the request thread and then
+        // continues from the same cursor with live events, so nothing is missed or sent twice
+        long replayEnd = appender.getLogEvents().nextSequence();
+        long replayStart = appender.replayStart(replayEnd, lastEventId,
+                filter.getSinceMillis() != null || properties.isSendRecentLogsOnConnect());
+        SseLogSubscriber subscriber = new SseLogSubscriber(emitter, replayStart, replayEnd, filter);
+
+        // Remove the subscriber when the client disconnects
+        emitter.onCompletion(() -> dispatcher.unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            emitter.complete();
+            dispatcher.unsubscribe(subscriber);
+        });
+        emitter.onError(e -> {
+            emitter.complete();
+            dispatcher.unsubscribe(subscriber);
+        });
 
-            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-            Logger rootLogger = loggerContext.getLogger("ROOT");
-            rootLogger.detachAppender(memoryAppender);
+        if (!dispatcher.subscribe(subscriber)) {
+            throw new ServiceUnavailableException("Too many live log subscribers");
         }
+        return emitter;
     }
 
     /**
-     * Register a new SSE emitter for a client connection
+     * Register a new SSE emitter that periodically receives the rolling log counts as {@code stats} events.
+     *
+     * @param windowMs   length of the aggregated window
+     * @param topLoggers number of loggers with the most events to include
+     * @throws ResourceNotFoundException   if statistics are disabled
+     * @throws ServiceUnavailableException if the maximum number of subscribers is reached
      */
-    public SseEmitter registerEmitter() {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-
-        // Add the emitter to the list
-        this.emitters.add(emitter);
+    public SseEmitter registerStatsEmitter(long windowMs, int topLoggers) {
+        if (statsPublisher == null) {
+            throw new ResourceNotFoundException("Live log statistics are disabled");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeoutMs());
+        LiveLogStatsPublisher.Sink sink = new LiveLogStatsPublisher.Sink() {
+            @Override
+            public void send(LiveLogStatistics statistics) throws IOException {
+                emitter.send(SseEmitter.event().name("stats").data(statistics, MediaType.APPLICATION_JSON));
+            }
 
-        // Remove the emitter when the client disconnects
-        emitter.onCompletion(() -> {
-            this.emitters.remove(emitter);
-        });
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        };
 
+        emitter.onCompletion(() -> statsPublisher.unsubscribe(sink));
         emitter.onTimeout(() -> {
             emitter.complete();
-            this.emitters.remove(emitter);
+            statsPublisher.unsubscribe(sink);
         });
-
         emitter.onError(e -> {
             emitter.complete();
-            this.emitters.remove(emitter);
+            statsPublisher.unsubscribe(sink);
         });
 
-        // Send recent logs on connect
-        try {
-            List<ILoggingEvent> recentLogs = memoryAppender.getRecentLogs();
-            for (ILoggingEvent event : recentLogs) {
-                Map<String, Object> logData = formatLogEvent(event);
-                emitter.send(SseEmitter.event()
-                        .name("log")
-                        .data(objectMapper.writeValueAsString(logData)));
-            }
-        } catch (Exception e) {
-            emitter.completeWithError(e);
+        if (!statsPublisher.subscribe(sink, windowMs, topLoggers)) {
+            throw new ServiceUnavailableException("Too many live log statistics subscribers");
         }
-
         return emitter;
     }
 
     /**
-     * Format a log event into a map that can be sent to clients
+     * Path of the binary WebSocket endpoint offered by the viewer, or an empty string if it is disabled.
      */
-    private Map<String, Object> formatLogEvent(ILoggingEvent event) {
-        Map<String, Object> logData = new HashMap<>();
-        logData.put("timestamp", formatter.format(Instant.ofEpochMilli(event.getTimeStamp())));
-        logData.put("level", event.getLevel().toString());
-        logData.put("thread", event.getThreadName());
-        logData.put("logger", event.getLoggerName());
-        logData.put("message", event.getFormattedMessage());
-
-        // Include exception info if present
-        if (event.getThrowableProxy() != null) {
-            logData.put("exception", event.getThrowableProxy().getMessage());
-
-            List<String> stackTrace = new ArrayList<>();
-            for (ch.qos.logback.classic.spi.StackTraceElementProxy element : event.getThrowableProxy().getStackTraceElementProxyArray()) {
-                stackTrace.add(element.getStackTraceElement().toString());
-            }
-            logData.put("stackTrace", stackTrace);
-        }
+    public String getBinaryWebSocketPath() {
+        return properties.isBinaryWebSocketEnabled() ? properties.getBinaryWebSocketPath() : "";
+    }
 
-        return logData;
+    /**
+     * Write pre-encoded SSE frames as-is with a single flush.
+     * Without batching, every event keeps its own frame whose bytes are shared by all emitters.
+     */
+    private void sendLogEvents(SseEmitter emitter, List<LiveLogEvent> events) throws IOException {
+        if (properties.isBatchEnabled()) {
+            emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(
+                    encoder.sseBatchFrame(events), MediaType.TEXT_EVENT_STREAM)));
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frames = new LinkedHashSet<>();
+        for (LiveLogEvent event : events) {
+            frames.add(new ResponseBodyEmitter.DataWithMediaType(encoder.sseFrame(event), MediaType.TEXT_EVENT_STREAM));
+        }
+        emitter.send(frames);
     }
 
     /**
-     * Custom Logback appender that keeps recent logs in memory and broadcasts to SSE clients
+     * Subscriber that forwards events from its own cursor to one SSE emitter
      */
-    private class MemoryAppender extends AppenderBase<ILoggingEvent> {
-        private final int MAX_LOGS = 1000;
-        private final List<ILoggingEvent> logEvents = new ArrayList<>();
+    private class SseLogSubscriber extends LiveLogSubscriber {
+        private final SseEmitter emitter;
+
+        SseLogSubscriber(SseEmitter emitter, long cursor, long replayEnd, LiveLogFilter filter) {
+            super(cursor, replayEnd, filter);
+            this.emitter = emitter;
+        }
 
         @Override
-        protected void append(ILoggingEvent event) {
-            synchronized (logEvents) {
-                // Add the event to memory
-                logEvents.add(event);
-
-                // Trim list if needed
-                while (logEvents.size() > MAX_LOGS) {
-                    logEvents.remove(0);
-                }
-            }
+        protected void deliver(List<LiveLogEvent> events) throws Exception {
+            sendLogEvents(emitter, events);
+        }
 
-            // Broadcast to all connected clients
-            for (SseEmitter emitter : emitters) {
-                try {
-                    Map<String, Object> logData = formatLogEvent(event);
-                    emitter.send(SseEmitter.event()
-                            .name("log")
-                            .data(objectMapper.writeValueAsString(logData)));
-                } catch (IOException e) {
-                    emitter.completeWithError(e);
-                } catch (Exception e) {
-                    // Ignore other errors to prevent affecting the logging system
-                }
-            }
+        @Override
+        protected void heartbeat() throws IOException {
+            emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(HEARTBEAT_FRAME, MediaType.TEXT_EVENT_STREAM)));
         }
 
-        public List<ILoggingEvent> getRecentLogs() {
-            synchronized (logEvents) {
-                return new ArrayList<>(logEvents);
+        @Override
+        protected void close(Throwable cause) {
+            if (cause != null) {
+                emitter.completeWithError(cause);
+            } else {
+                emitter.complete();
             }
         }
     }
@@ -1,35 +1,38 @@
 package io.joshuasalcedo.commonlibs.autoconfigure;
 
-import ch.qos.logback.classic.Logger;
-import ch.qos.logback.classic.LoggerContext;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.AppenderBase;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import ch.qos.logback.classic.Level;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogAppender;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogDestinations;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEncoder;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
-import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Auto-configuration for WebSocket support.
+ * <p>
+ * Log events are published to the subscribed {@link LiveLogDestinations} by the shared live log
+ * hub, from the same buffer and JSON encoding as the SSE endpoints; no appender of its own is attached.
  */
 @AutoConfiguration
 @ConditionalOnWebApplication
@@ -37,10 +40,19 @@ import java.util.Map;
 @ConditionalOnProperty(prefix = "app.live-logs", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class WebSocketAutoConfiguration implements WebSocketMessageBrokerConfigurer {
 
-    private SimpMessagingTemplate messagingTemplate;
-    private WebSocketLogAppender logAppender;
-    private final ObjectMapper objectMapper;
+    private static final Logger log = LoggerFactory.getLogger(WebSocketAutoConfiguration.class);
+
+    /**
+     * Destination that receives all log events; filtered destinations are below it
+     */
+    private static final String LOGS_DESTINATION = "/topic/logs";
+
+    private static final Map<String, Object> JSON_HEADERS = Map.of(MessageHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+
+    private LiveLogDestinations logDestinations;
     private final ObjectProvider<SimpMessagingTemplate> messagingTemplateProvider;
+    private final ObjectProvider<LiveLogAppender> hubProvider;
+    private final ObjectProvider<LiveLogEncoder> encoderProvider;
 
     @Value("${app.live-logs.enabled:true}")
     private boolean liveLogsEnabled;
@@ -48,14 +60,20 @@ public class WebSocketAutoConfiguration implements WebSocketMessageBrokerConfigu
     @Value("${app.live-logs.level:INFO}")
     private String liveLogsLevel;
 
-    public WebSocketAutoConfiguration(ObjectMapper objectMapper,
-                                  ObjectProvider<SimpMessagingTemplate> messagingTemplateProvider) {
-        this.objectMapper = objectMapper;
+    /**
+     * Events per message; above 1 a message holds a JSON array instead of a single event object
+     */
+    @Value("${app.live-logs.batch-size:1}")
+    private int batchSize;
+
+    public WebSocketAutoConfiguration(ObjectProvider<SimpMessagingTemplate> messagingTemplateProvider,
+                                      ObjectProvider<LiveLogAppender> hubProvider,
+                                      ObjectProvider<LiveLogEncoder> encoderProvider) {
         this.messagingTemplateProvider = messagingTemplateProvider;
+        this.hubProvider = hubProvider;
+        this.encoderProvider = encoderProvider;
     }
 
-
-
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.enableSimpleBroker("/topic");
@@ -74,66 +92,53 @@ public class WebSocketAutoConfiguration implements WebSocketMessageBrokerConfigu
         if (liveLogsEnabled) {
             // Defer getting the messaging template until it's available
             // This breaks the circular dependency
-            messagingTemplate = messagingTemplateProvider.getIfAvailable();
-
-            if (messagingTemplate != null) {
-                logAppender = new WebSocketLogAppender(messagingTemplate, objectMapper);
-                logAppender.start();
-
-                LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-                Logger rootLogger = loggerContext.getLogger("ROOT");
-                rootLogger.addAppender(logAppender);
+            SimpMessagingTemplate messagingTemplate = messagingTemplateProvider.getIfAvailable();
+            LiveLogAppender hub = hubProvider.getIfAvailable();
+            LiveLogEncoder encoder = encoderProvider.getIfAvailable();
+
+            // Destinations read from the shared live log hub instead of attaching their own appender
+            if (messagingTemplate != null && hub != null && encoder != null) {
+                logDestinations = new LiveLogDestinations(LOGS_DESTINATION, Level.toLevel(liveLogsLevel, Level.INFO),
+                        batchSize, hub, (destination, events) ->
+                        messagingTemplate.convertAndSend(destination,
+                                batchSize > 1 ? encoder.jsonArray(events) : encoder.json(events.get(0)), JSON_HEADERS));
+            } else if (hub == null) {
+                log.warn("No live log hub is available, so nothing is published to {}", LOGS_DESTINATION);
             }
         }
     }
 
-    @PreDestroy
-    public void destroy() {
-        if (logAppender != null) {
-            logAppender.stop();
-
-            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-            Logger rootLogger = loggerContext.getLogger("ROOT");
-            rootLogger.detachAppender(logAppender);
+    /**
+     * Track which log destinations a session subscribes to, so only those are published.
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        if (logDestinations == null) {
+            return;
         }
+        StompHeaderAccessor headers = headers(event);
+        logDestinations.subscribe(headers.getSessionId(), headers.getSubscriptionId(), headers.getDestination());
     }
 
-    /**
-     * Custom Logback appender that publishes log events to a WebSocket topic.
-     */
-    public static class WebSocketLogAppender extends AppenderBase<ILoggingEvent> {
-        private final SimpMessagingTemplate messagingTemplate;
-        private final ObjectMapper objectMapper;
-        private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("hh:mm:ss a")
-                .withZone(ZoneId.systemDefault());
-
-        public WebSocketLogAppender(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
-            this.messagingTemplate = messagingTemplate;
-            this.objectMapper = objectMapper;
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        if (logDestinations == null) {
+            return;
         }
+        StompHeaderAccessor headers = headers(event);
+        logDestinations.unsubscribe(headers.getSessionId(), headers.getSubscriptionId());
+    }
 
-        @Override
-        protected void append(ILoggingEvent event) {
-            try {
-                Map<String, Object> logData = new HashMap<>();
-                logData.put("timestamp", formatter.format(Instant.ofEpochMilli(event.getTimeStamp())));
-                logData.put("level", event.getLevel().toString());
-                logData.put("thread", event.getThreadName());
-                logData.put("logger", event.getLoggerName());
-                logData.put("message", event.getFormattedMessage());
-
-                // Include exception info if present
-                if (event.getThrowableProxy() != null) {
-                    logData.put("exception", event.getThrowableProxy().getMessage());
-                    logData.put("stackTrace", event.getThrowableProxy().getStackTraceElementProxyArray());
-                }
-
-                messagingTemplate.convertAndSend("/topic/logs", objectMapper.writeValueAsString(logData));
-            } catch (JsonProcessingException e) {
-                // Don't log the error here to avoid potential infinite loop
-                System.err.println("Error processing log event for WebSocket: " + e.getMessage());
-            }
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        if (logDestinations == null) {
+            return;
         }
+        logDestinations.disconnect(event.getSessionId());
+    }
+
+    private static StompHeaderAccessor headers(AbstractSubProtocolEvent event) {
+        return StompHeaderAccessor.wrap(event.getMessage());
     }
 
     // Remove the nested configuration class since it's creating duplicate beans
@@ -0,0 +1,52 @@
+package io.joshuasalcedo.commonlibs.controller;
+
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogEncoder;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogIndex;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogQuery;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for searching the recent logs kept in memory.
+ * Works in servlet and reactive applications alike.
+ */
+@RestController
+@RequestMapping("/logs")
+public class LiveLogQueryController {
+
+    private final LiveLogIndex index;
+    private final LiveLogEncoder encoder;
+    private final int maxResults;
+
+    public LiveLogQueryController(LiveLogIndex index, LiveLogEncoder encoder, int maxResults) {
+        this.index = index;
+        this.encoder = encoder;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Search the recent logs.
+     *
+     * @param q     terms to search for, e.g. {@code timeout level:error OR -retry refused};
+     *              all events in the time range if empty
+     * @param from  only events logged at or after this time (ISO-8601 or epoch millis)
+     * @param to    only events logged before this time (ISO-8601 or epoch millis)
+     * @param limit maximum number of events to return, newest first
+     * @return matching events as JSON
+     */
+    @GetMapping(value = "/query", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> query(@RequestParam(required = false) String q,
+                                        @RequestParam(required = false) String from,
+                                        @RequestParam(required = false) String to,
+                                        @RequestParam(defaultValue = "100") int limit) {
+        LiveLogQuery query = LiveLogQuery.parse(q, from, to);
+        int boundedLimit = Math.max(1, Math.min(limit, maxResults));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(encoder.searchResult(index.search(query, boundedLimit)));
+    }
+}
@@ -0,0 +1,39 @@
+package io.joshuasalcedo.commonlibs.controller;
+
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStatistics;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStats;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller for rolling log counts per level and logger.
+ * Works in servlet and reactive applications alike.
+ */
+@RestController
+@RequestMapping("/logs")
+public class LiveLogStatsController {
+
+    private final LiveLogStats stats;
+
+    public LiveLogStatsController(LiveLogStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Log counts of the most recent window.
+     *
+     * @param window length of the window in seconds; capped at the retention
+     * @param top    number of loggers with the most events to include
+     * @return counts per level, per logger and per time bucket
+     */
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public LiveLogStatistics getStats(@RequestParam(defaultValue = "300") long window,
+                                      @RequestParam(defaultValue = "20") int top) {
+        return stats.snapshot(TimeUnit.SECONDS.toMillis(window), top);
+    }
+}
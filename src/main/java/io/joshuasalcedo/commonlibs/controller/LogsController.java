@@ -1,43 +1,144 @@
 package io.joshuasalcedo.commonlibs.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.joshuasalcedo.commonlibs.domain.BadRequestException;
+import io.joshuasalcedo.commonlibs.domain.ServiceUnavailableException;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileExport;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileFollower;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileLineIndex;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileRange;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileRecordReader;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileSearch;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileSeek;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileTail;
+import io.joshuasalcedo.commonlibs.domain.logging.file.LogFileTransfer;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogConnectionLimits;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller for accessing application logs.
- * Provides endpoints to download, view, or stream log files.
+ * Provides endpoints to download, view, stream, or follow log files.
  */
 @RestController
 @RequestMapping("/api/logs")
 public class LogsController {
 
+    private static final int MAX_TAIL_LINES = 10_000;
+
+    private static final long MAX_TAIL_BYTES = 16 * 1024 * 1024;
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final int FOLLOW_CHUNK_SIZE = 64 * 1024;
+
+    private static final int MAX_SEARCH_RESULTS = 100_000;
+
+    private static final int LINE_INDEX_INTERVAL = 1024;
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    // Request attributes of the Tomcat sendfile support
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
     @Value("${LOG_FILE_PATH:${user.home}/.app/logs}")
     private String logFilePath;
     
     @Value("${spring.application.name:application}")
     private String appName;
 
+    @Value("${io.joshuasalcedo.logs.follow.poll-interval-ms:500}")
+    private long followPollIntervalMs;
+
+    @Value("${io.joshuasalcedo.logs.follow.max-followers:50}")
+    private int maxFollowers;
+
+    @Value("${io.joshuasalcedo.logs.follow.max-queued-bytes:4194304}")
+    private long followMaxQueuedBytes;
+
+    @Value("${io.joshuasalcedo.logs.follow.heartbeat-interval-ms:0}")
+    private long followHeartbeatIntervalMs;
+
+    @Value("${io.joshuasalcedo.logs.follow.max-lifetime-ms:3600000}")
+    private long followMaxLifetimeMs;
+
+    @Value("${io.joshuasalcedo.logs.search.parallelism:0}")
+    private int searchParallelism;
+
+    /**
+     * Reads the appended bytes once for all clients of {@code /follow}
+     */
+    private LogFileFollower follower;
+
+    private LogFileSearch search;
+
+    /**
+     * Line indexes of the plain log files, built on their first page request
+     */
+    private final Map<String, LogFileLineIndex> lineIndexes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        follower = new LogFileFollower(Paths.get(logFilePath, appName + ".log"),
+                followPollIntervalMs, FOLLOW_CHUNK_SIZE, followMaxQueuedBytes,
+                new LiveLogConnectionLimits(followHeartbeatIntervalMs, followMaxLifetimeMs, maxFollowers));
+        follower.start();
+        search = new LogFileSearch(searchParallelism > 0 ? searchParallelism : Runtime.getRuntime().availableProcessors(),
+                ZoneId.systemDefault());
+    }
+
+    @PreDestroy
+    public void stop() {
+        follower.stop();
+        search.shutdown();
+    }
+
     /**
-     * Get a list of available log files
+     * Get a list of available log files, including the rolled {@code .log.gz} archives
      * @return List of log files with their details
      */
     @GetMapping("/list")
@@ -49,7 +150,8 @@ public class LogsController {
                     .body(new ArrayList<>());
         }
         
-        File[] files = logDir.listFiles((dir, name) -> name.contains(appName) && name.endsWith(".log"));
+        File[] files = logDir.listFiles((dir, name) -> name.contains(appName)
+                && (name.endsWith(".log") || name.endsWith(".log.gz")));
         
         if (files == null || files.length == 0) {
             return ResponseEntity.ok(new ArrayList<>());
@@ -68,59 +170,184 @@ public class LogsController {
     }
 
     /**
-     * Download the current log file
-     * @return Log file as a downloadable resource
+     * Download the current log file.
+     * Supports single-range and resumable requests ({@code Range}, {@code If-Range}) and gzip encoding.
+     * @return Log file as a downloadable attachment
      */
     @GetMapping("/download")
-    public ResponseEntity<Resource> downloadLogFile() {
-        File logFile = new File(logFilePath, appName + ".log");
-        
-        if (!logFile.exists()) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        return ResponseEntity
-                .ok()
-                .contentLength(logFile.length())
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header("Content-Disposition", "attachment; filename=\"" + logFile.getName() + "\"")
-                .body(new FileSystemResource(logFile));
+    public ResponseEntity<StreamingResponseBody> downloadLogFile(HttpServletRequest request,
+                                                                 HttpServletResponse response) {
+        Path path = Paths.get(logFilePath, appName + ".log");
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(path.getFileName().toString())
+                .build();
+        return transfer(path, MediaType.APPLICATION_OCTET_STREAM, disposition, request, response);
     }
 
     /**
-     * Stream log file content (useful for large files)
+     * Stream log file content (useful for large files).
+     * The raw bytes are sent without decoding lines; supports the same requests as {@link #downloadLogFile}.
      * @return Streaming response with log content
      */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<StreamingResponseBody> streamLogFile() {
-        File logFile = new File(logFilePath, appName + ".log");
-        
-        if (!logFile.exists()) {
+    public ResponseEntity<StreamingResponseBody> streamLogFile(HttpServletRequest request,
+                                                               HttpServletResponse response) {
+        Path path = Paths.get(logFilePath, appName + ".log");
+        return transfer(path, TEXT_PLAIN_UTF8, ContentDisposition.inline().build(), request, response);
+    }
+
+    /**
+     * Send the file, or the requested range of it.
+     * A range or uncompressed whole file is handed to the container's sendfile support when available,
+     * so the bytes go from the page cache to the socket without being copied through the JVM.
+     */
+    private ResponseEntity<StreamingResponseBody> transfer(Path path, MediaType contentType,
+                                                          ContentDisposition disposition,
+                                                          HttpServletRequest request,
+                                                          HttpServletResponse response) {
+        long size;
+        long lastModified;
+        try {
+            size = Files.size(path);
+            lastModified = Files.getLastModifiedTime(path).toMillis();
+        } catch (NoSuchFileException e) {
             return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
-        
-        StreamingResponseBody responseBody = outputStream -> {
-            try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    outputStream.write((line + "\n").getBytes());
-                    outputStream.flush();
+        // Strong validator: the file only changes by growing or being rolled over
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // Ranges are always served from the uncompressed file
+        LogFileRange range = null;
+        if (ifRangeMatches(request, etag, lastModified)) {
+            range = LogFileRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+        }
+        boolean gzip = range == null && acceptsGzip(request);
+        if (gzip) {
+            // The compressed representation differs byte for byte, so it needs a validator of its own
+            etag = etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.setContentDisposition(disposition);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        // Also writes the ETag and Last-Modified headers to the response
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            // 304, or 412 for a failed If-Match or If-Unmodified-Since. Answered before the sendfile
+            // attributes are set, which would otherwise still send the file
+            return ResponseEntity.status(response.getStatus()).headers(headers).build();
+        }
+
+        if (range == LogFileRange.UNSATISFIABLE) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+
+        boolean head = HttpMethod.HEAD.matches(request.getMethod());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            if (head) {
+                return ResponseEntity.ok().headers(headers).build();
+            }
+            return ResponseEntity.ok().headers(headers).body(outputStream -> {
+                GZIPOutputStream compressed = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+                LogFileTransfer.copy(path, 0, size, compressed);
+                compressed.finish();
+            });
+        }
+
+        long start = range != null ? range.start() : 0;
+        long length = range != null ? range.length() : size;
+        HttpStatus status = HttpStatus.OK;
+        if (range != null) {
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, range.contentRange(size));
+        }
+        headers.setContentLength(length);
+        if (head || length == 0) {
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            try {
+                request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toRealPath().toString());
+                request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+                request.setAttribute(SENDFILE_END_ATTRIBUTE, start + length);
+                return ResponseEntity.status(status).headers(headers).build();
+            } catch (IOException e) {
+                // Fall back to copying
+                request.removeAttribute(SENDFILE_FILENAME_ATTRIBUTE);
+            }
+        }
+        return ResponseEntity.status(status).headers(headers)
+                .body(outputStream -> LogFileTransfer.copy(path, start, length, outputStream));
+    }
+
+    /**
+     * Whether a {@code Range} header may be honoured: without {@code If-Range}, or if it still names
+     * the current version of the file. Otherwise the whole file is sent.
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            // HTTP dates have second precision
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
                 }
             }
-        };
-        
-        return ResponseEntity
-                .ok()
-                .contentType(MediaType.TEXT_PLAIN)
-                .body(responseBody);
+            return true;
+        }
+        return false;
     }
 
     /**
-     * View the last N lines of the log file
+     * View the last lines of the log file.
+     * The file is read backwards from its end, so the cost depends on the lines returned, not on the file size.
+     * @param lines    number of lines to return
+     * @param maxBytes maximum number of bytes read from the end of the file; lines that do not fit are left out
      * @return Last lines of the log file
      */
     @GetMapping("/tail")
-    public ResponseEntity<List<String>> tailLogFile() {
+    public ResponseEntity<List<String>> tailLogFile(@RequestParam(defaultValue = "100") int lines,
+                                                    @RequestParam(defaultValue = "1048576") long maxBytes) {
+        if (lines < 1 || lines > MAX_TAIL_LINES) {
+            throw new BadRequestException("lines must be between 1 and " + MAX_TAIL_LINES);
+        }
+        if (maxBytes < 1 || maxBytes > MAX_TAIL_BYTES) {
+            throw new BadRequestException("maxBytes must be between 1 and " + MAX_TAIL_BYTES);
+        }
         Path path = Paths.get(logFilePath, appName + ".log");
         
         if (!Files.exists(path)) {
@@ -128,18 +355,259 @@ public class LogsController {
         }
         
         try {
-            // Read the last 100 lines (or fewer if file is smaller)
-            List<String> lines = Files.lines(path)
-                    .collect(Collectors.toCollection(ArrayList::new));
-            
-            int startIndex = Math.max(0, lines.size() - 100);
-            return ResponseEntity.ok(lines.subList(startIndex, lines.size()));
-            
+            return ResponseEntity.ok(LogFileTail.tail(path, lines, maxBytes));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Follow the log file as it grows, like {@code tail -f}.
+     * Only the lines appended after connecting are sent; they include lines written by other
+     * appenders or processes. Rollover of the file is followed without losing lines.
+     * @return Streaming response with the appended log content
+     */
+    @GetMapping(value = "/follow", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseBodyEmitter followLogFile() {
+        // No timeout; the follower closes clients after their lifetime, and dead ones on the next failed write
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        LogFileFollower.Sink sink = new LogFileFollower.Sink() {
+            @Override
+            public void send(byte[] chunk) throws IOException {
+                emitter.send(chunk, TEXT_PLAIN_UTF8);
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        };
+
+        emitter.onCompletion(() -> follower.unsubscribe(sink));
+        emitter.onTimeout(() -> {
+            emitter.complete();
+            follower.unsubscribe(sink);
+        });
+        emitter.onError(e -> {
+            emitter.complete();
+            follower.unsubscribe(sink);
+        });
+
+        if (!follower.subscribe(sink)) {
+            throw new ServiceUnavailableException("Too many log file followers");
+        }
+        return emitter;
+    }
+
+    /**
+     * Read a page of lines anywhere in a log file.
+     * A sparse index of line offsets lets the page be found without reading the file up to it.
+     * @param file     name of the log file, as returned by {@code /list}; defaults to the current file
+     * @param fromLine number of the first line, starting at 1
+     * @param count    number of lines to return
+     * @return The page with the total number of lines
+     */
+    @GetMapping("/page")
+    public ResponseEntity<LogFileLineIndex.Page> pageLogFile(@RequestParam(required = false) String file,
+                                                             @RequestParam(defaultValue = "1") long fromLine,
+                                                             @RequestParam(defaultValue = "100") int count) {
+        if (fromLine < 1) {
+            throw new BadRequestException("fromLine must be at least 1");
+        }
+        if (count < 1 || count > MAX_TAIL_LINES) {
+            throw new BadRequestException("count must be between 1 and " + MAX_TAIL_LINES);
+        }
+        String name = plainLogFileName(file);
+        Path path = Paths.get(logFilePath, name);
+
+        if (!Files.isRegularFile(path)) {
+            lineIndexes.remove(name);
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            LogFileLineIndex index = lineIndexes.computeIfAbsent(name, key -> new LogFileLineIndex(path, LINE_INDEX_INTERVAL));
+            return ResponseEntity.ok(index.read(fromLine, count));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * View the lines logged around a point in time.
+     * The file is binary-searched by byte offset, reading only the timestamps of a few lines,
+     * so the cost does not depend on the file size.
+     * @param time   point in time (ISO-8601 or epoch millis)
+     * @param file   name of the log file, as returned by {@code /list}; defaults to the current file
+     * @param before number of lines before the first event at or after the time
+     * @param after  number of lines from that event on
+     * @return The offset and time of that event with the lines around it
+     */
+    @GetMapping("/at")
+    public ResponseEntity<LogFileSeek.Window> logFileAt(@RequestParam String time,
+                                                        @RequestParam(required = false) String file,
+                                                        @RequestParam(defaultValue = "50") int before,
+                                                        @RequestParam(defaultValue = "50") int after) {
+        Long millis = LiveLogFilter.parseTime(time, "time");
+        if (millis == null) {
+            throw new BadRequestException("time is required");
+        }
+        if (before < 0 || before > MAX_TAIL_LINES || after < 0 || after > MAX_TAIL_LINES) {
+            throw new BadRequestException("before and after must be between 0 and " + MAX_TAIL_LINES);
+        }
+        Path path = Paths.get(logFilePath, plainLogFileName(file));
+
+        if (!Files.isRegularFile(path)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            return ResponseEntity.ok(LogFileSeek.around(path, millis, ZoneId.systemDefault(), before, after, MAX_TAIL_BYTES));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Name of a plain log file of this application in the log directory.
+     * @param file requested name; defaults to the current file
+     * @throws BadRequestException for other files, compressed archives or paths
+     */
+    private String plainLogFileName(String file) {
+        String name = file != null && !file.isBlank() ? file : appName + ".log";
+        if (!name.contains(appName) || !name.endsWith(".log") || name.contains("/") || name.contains("\\")) {
+            throw new BadRequestException("Only the plain .log files of this application can be read: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * Export the events of a log file as NDJSON, parsed into their fields.
+     * Every line is an object with {@code timestamp}, {@code level}, {@code thread}, {@code logger},
+     * {@code message} and, if present, {@code stackTrace}. The filters work as for the live log stream,
+     * but {@code logger}, {@code excludeLogger} and {@code contains} see the logger names as written by
+     * {@code %-40.40logger{39}}: packages of names longer than 39 characters are shortened to their
+     * first letter (e.g. {@code c.a.payments.service.OrderServiceImpl}), so a full package prefix may
+     * not match them.
+     * @param file          name of the log file or archive, as returned by {@code /list}; defaults to the current file
+     * @param level         minimum level
+     * @param logger        logger name prefixes to include
+     * @param excludeLogger logger name prefixes to exclude
+     * @param regex         regular expression that must be found in the message
+     * @param contains      case-insensitive text that must appear in the message or logger name
+     * @param from          only events at or after this time (ISO-8601 or epoch millis)
+     * @param to            only events at or before this time (ISO-8601 or epoch millis)
+     * @param limit         maximum number of events; 0 is unlimited
+     * @return Streaming response with one JSON object per event
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportLogFile(@RequestParam(required = false) String file,
+                                                               @RequestParam(required = false) String level,
+                                                               @RequestParam(required = false) List<String> logger,
+                                                               @RequestParam(required = false) List<String> excludeLogger,
+                                                               @RequestParam(required = false) String regex,
+                                                               @RequestParam(required = false) String contains,
+                                                               @RequestParam(required = false) String from,
+                                                               @RequestParam(required = false) String to,
+                                                               @RequestParam(defaultValue = "0") long limit) {
+        if (limit < 0) {
+            throw new BadRequestException("limit must not be negative");
+        }
+        String name = file != null && !file.isBlank() ? file : appName + ".log";
+        if (!name.contains(appName) || !(name.endsWith(".log") || name.endsWith(".log.gz"))
+                || name.contains("/") || name.contains("\\")) {
+            throw new BadRequestException("Only the log files of this application can be exported: " + name);
+        }
+        Long fromMillis = LiveLogFilter.parseTime(from, "from");
+        Long toMillis = LiveLogFilter.parseTime(to, "to");
+        LiveLogFilter filter = LiveLogFilter.of(level, logger, excludeLogger, regex, contains, null)
+                .withSinceMillis(fromMillis);
+        Path path = Paths.get(logFilePath, name);
+
+        if (!Files.isRegularFile(path)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        StreamingResponseBody responseBody = outputStream -> {
+            try (InputStream raw = Files.newInputStream(path);
+                 InputStream in = name.endsWith(".gz") ? new GZIPInputStream(raw, GZIP_BUFFER_SIZE) : raw;
+                 LogFileRecordReader reader = new LogFileRecordReader(
+                         new InputStreamReader(in, StandardCharsets.UTF_8), ZoneId.systemDefault());
+                 JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                LogFileExport.export(reader, filter, toMillis, limit, generator);
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(responseBody);
+    }
+
+    /**
+     * Search the current log file and its rolled archives in parallel.
+     * Matching events, including their stack traces, are streamed as NDJSON objects with
+     * {@code file}, {@code line}, {@code timestamp} and {@code text} as soon as they are found.
+     * @param contains case-insensitive text that must appear in the event
+     * @param regex    regular expression that must be found in the event
+     * @param from     only events at or after this time (ISO-8601 or epoch millis); skips older archives
+     * @param to       only events at or before this time (ISO-8601 or epoch millis); skips newer archives
+     * @param limit    maximum number of results
+     * @return Streaming response with the matching events
+     */
+    @GetMapping(value = "/search", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> searchLogFiles(@RequestParam(required = false) String contains,
+                                                                @RequestParam(required = false) String regex,
+                                                                @RequestParam(required = false) String from,
+                                                                @RequestParam(required = false) String to,
+                                                                @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        List<Pattern> patterns = new ArrayList<>();
+        if (regex != null && !regex.isBlank()) {
+            try {
+                patterns.add(Pattern.compile(regex));
+            } catch (PatternSyntaxException e) {
+                throw new BadRequestException("Invalid regex: " + e.getDescription(), e);
+            }
+        }
+        if (contains != null && !contains.isBlank()) {
+            patterns.add(Pattern.compile(contains, Pattern.LITERAL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+        }
+        Long fromMillis = LiveLogFilter.parseTime(from, "from");
+        Long toMillis = LiveLogFilter.parseTime(to, "to");
+
+        List<Path> files;
+        try {
+            files = LogFileSearch.logFiles(Paths.get(logFilePath), appName);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        StreamingResponseBody responseBody = outputStream -> {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                search.search(files, appName, patterns, fromMillis, toMillis, limit, new LogFileSearch.MatchWriter() {
+                    @Override
+                    public void write(LogFileSearch.Match match) throws IOException {
+                        generator.writeStartObject();
+                        generator.writeStringField("file", match.file());
+                        generator.writeNumberField("line", match.line());
+                        if (match.timestamp() != null) {
+                            generator.writeNumberField("timestamp", match.timestamp());
+                        }
+                        generator.writeStringField("text", match.text());
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        generator.flush();
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(responseBody);
+    }
+
     /**
      * Data class for log file information
      */
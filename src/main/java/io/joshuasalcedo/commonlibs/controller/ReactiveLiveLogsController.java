@@ -0,0 +1,74 @@
+package io.joshuasalcedo.commonlibs.controller;
+
+import io.joshuasalcedo.commonlibs.autoconfigure.ReactiveLiveLogAutoConfiguration;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogFilter;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogStatistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller for reactive Server-Sent Events based live logs.
+ * Serves the same {@code /logs/stream} contract as {@link SseLiveLogsController} in WebFlux applications.
+ */
+@RestController
+@RequestMapping("/logs")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveLiveLogsController {
+
+    private final ReactiveLiveLogAutoConfiguration logConfig;
+
+    public ReactiveLiveLogsController(ReactiveLiveLogAutoConfiguration logConfig) {
+        this.logConfig = logConfig;
+    }
+
+    /**
+     * Endpoint for streaming live logs as SSE.
+     * All filters are optional and evaluated on the server before events are sent.
+     *
+     * @param level             minimum log level to receive
+     * @param logger            logger name prefixes to include
+     * @param excludeLogger     logger name prefixes to exclude
+     * @param regex             regular expression that must be found in the message
+     * @param contains          case-insensitive text that must appear in the message or logger name
+     * @param lastEventIdHeader ID of the last received event, sent by the browser when it reconnects
+     * @param lastEventId       same as the Last-Event-ID header, for clients that cannot set headers
+     * @param since             only events logged at or after this time (ISO-8601 or epoch millis)
+     * @return stream of log events
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamLogs(@RequestParam(required = false) String level,
+                                                    @RequestParam(required = false) List<String> logger,
+                                                    @RequestParam(required = false) List<String> excludeLogger,
+                                                    @RequestParam(required = false) String regex,
+                                                    @RequestParam(required = false) String contains,
+                                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                                    @RequestParam(required = false) Long lastEventId,
+                                                    @RequestParam(required = false) String since) {
+        LiveLogFilter filter = LiveLogFilter.of(level, logger, excludeLogger, regex, contains, since);
+        Long resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        return logConfig.streamLogs(filter, resumeFrom);
+    }
+
+    /**
+     * Endpoint for receiving the rolling log counts of {@code /logs/stats} as periodic SSE events.
+     *
+     * @param window length of the window in seconds; capped at the retention
+     * @param top    number of loggers with the most events to include
+     * @return stream of statistics
+     */
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LiveLogStatistics>> streamStats(@RequestParam(defaultValue = "300") long window,
+                                                                @RequestParam(defaultValue = "20") int top) {
+        return logConfig.streamStats(TimeUnit.SECONDS.toMillis(window), top);
+    }
+}
@@ -1,12 +1,18 @@
 package io.joshuasalcedo.commonlibs.controller;
 
 import io.joshuasalcedo.commonlibs.autoconfigure.SseLiveLogAutoConfiguration;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogFilter;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Controller for Server-Sent Events based live logs.
  */
@@ -21,12 +27,44 @@ public class SseLiveLogsController {
     }
 
     /**
-     * Endpoint for establishing SSE connection
+     * Endpoint for establishing SSE connection.
+     * All filters are optional and evaluated on the server before events are sent.
+     *
+     * @param level         minimum log level to receive
+     * @param logger        logger name prefixes to include
+     * @param excludeLogger logger name prefixes to exclude
+     * @param regex         regular expression that must be found in the message
+     * @param contains      case-insensitive text that must appear in the message or logger name
+     * @param lastEventIdHeader ID of the last received event, sent by the browser when it reconnects
+     * @param lastEventId   same as the Last-Event-ID header, for clients that cannot set headers
+     * @param since         only events logged at or after this time (ISO-8601 or epoch millis)
      * @return SSE emitter for streaming logs
      */
     @GetMapping("/stream")
-    public SseEmitter streamLogs() {
-        return logConfig.registerEmitter();
+    public SseEmitter streamLogs(@RequestParam(required = false) String level,
+                                 @RequestParam(required = false) List<String> logger,
+                                 @RequestParam(required = false) List<String> excludeLogger,
+                                 @RequestParam(required = false) String regex,
+                                 @RequestParam(required = false) String contains,
+                                 @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                 @RequestParam(required = false) Long lastEventId,
+                                 @RequestParam(required = false) String since) {
+        LiveLogFilter filter = LiveLogFilter.of(level, logger, excludeLogger, regex, contains, since);
+        Long resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        return logConfig.registerEmitter(filter, resumeFrom);
+    }
+
+    /**
+     * Endpoint for receiving the rolling log counts of {@code /logs/stats} as periodic SSE events.
+     *
+     * @param window length of the window in seconds; capped at the retention
+     * @param top    number of loggers with the most events to include
+     * @return SSE emitter for streaming statistics
+     */
+    @GetMapping("/stats/stream")
+    public SseEmitter streamStats(@RequestParam(defaultValue = "300") long window,
+                                  @RequestParam(defaultValue = "20") int top) {
+        return logConfig.registerStatsEmitter(TimeUnit.SECONDS.toMillis(window), top);
     }
 
     /**
@@ -166,6 +204,10 @@ public class SseLiveLogsController {
                             <span id="connectionStatus" class="connection-status disconnected">Disconnected</span>
                         </div>
                         <div class="controls">
+                            <select id="transport">
+                                <option value="sse" selected>SSE (JSON)</option>
+                                <option value="binary">WebSocket (CBOR)</option>
+                            </select>
                             <select id="logLevel">
                                 <option value="TRACE">TRACE</option>
                                 <option value="DEBUG">DEBUG</option>
@@ -197,19 +239,49 @@ public class SseLiveLogsController {
                             const scrollToBottomButton = document.getElementById('scrollToBottom');
                             const searchInput = document.getElementById('searchInput');
                             const connectionStatus = document.getElementById('connectionStatus');
+                            const transportSelect = document.getElementById('transport');
+                            const binaryPath = '__BINARY_WEB_SOCKET_PATH__';
                             
                             let isPaused = false;
                             let autoScroll = true;
                             let eventSource = null;
+                            let socket = null;
+                            let strings = [];
                             let filterText = '';
+                            let lastEventId = null;
                             
-                            // Create SSE connection
-                            function connect() {
+                            if (!binaryPath) {
+                                transportSelect.style.display = 'none';
+                            }
+                            
+                            // Create SSE connection; when resuming, only the missed events are replayed
+                            function connect(resume) {
                                 if (eventSource) {
                                     eventSource.close();
+                                    eventSource = null;
+                                }
+                                if (socket) {
+                                    socket.onclose = null;
+                                    socket.close();
+                                    socket = null;
+                                }
+                                if (!resume) {
+                                    lastEventId = null;
                                 }
                                 
-                                eventSource = new EventSource('/logs/stream');
+                                // Level and text filters are applied on the server
+                                const params = new URLSearchParams({ level: logLevelSelect.value });
+                                if (filterText) {
+                                    params.set('contains', filterText);
+                                }
+                                if (lastEventId !== null) {
+                                    params.set('lastEventId', lastEventId);
+                                }
+                                if (transportSelect.value === 'binary') {
+                                    connectBinary(params);
+                                    return;
+                                }
+                                eventSource = new EventSource('/logs/stream?' + params.toString());
                                 
                                 eventSource.onopen = function() {
                                     connectionStatus.textContent = 'Connected';
@@ -219,12 +291,21 @@ public class SseLiveLogsController {
                                 };
                                 
                                 eventSource.addEventListener('log', function(event) {
+                                    lastEventId = event.lastEventId;
                                     if (!isPaused) {
                                         const logData = JSON.parse(event.data);
                                         appendLog(logData);
                                     }
                                 });
                                 
+                                // Batching mode sends several events as one JSON array
+                                eventSource.addEventListener('log-batch', function(event) {
+                                    lastEventId = event.lastEventId;
+                                    if (!isPaused) {
+                                        JSON.parse(event.data).forEach(appendLog);
+                                    }
+                                });
+                                
                                 eventSource.onerror = function() {
                                     connectionStatus.textContent = 'Disconnected';
                                     connectionStatus.classList.remove('connected');
@@ -233,26 +314,168 @@ public class SseLiveLogsController {
                                     
                                     // Close and retry after a delay
                                     eventSource.close();
-                                    setTimeout(connect, 5000);
+                                    setTimeout(function() { connect(true); }, 5000);
                                 };
                             }
                             
-                            function appendLog(logData) {
-                                // Check if log level matches selected filter
-                                const selectedLevel = logLevelSelect.value;
-                                const logLevelValue = getLogLevelValue(logData.level);
-                                const selectedLevelValue = getLogLevelValue(selectedLevel);
+                            // Binary WebSocket: the same filters, with events in compact CBOR frames
+                            function connectBinary(params) {
+                                const protocol = location.protocol === 'https:' ? 'wss:' : 'ws:';
+                                const current = new WebSocket(protocol + '//' + location.host + binaryPath + '?' + params.toString());
+                                current.binaryType = 'arraybuffer';
+                                socket = current;
+                                strings = [];
                                 
-                                if (logLevelValue < selectedLevelValue) {
-                                    return;
+                                current.onopen = function() {
+                                    connectionStatus.textContent = 'Connected';
+                                    connectionStatus.classList.remove('disconnected');
+                                    connectionStatus.classList.add('connected');
+                                    console.log('Binary WebSocket connection established');
+                                };
+                                
+                                current.onmessage = function(message) {
+                                    const events = decodeFrame(message.data);
+                                    if (events.length > 0) {
+                                        lastEventId = events[events.length - 1].id;
+                                    }
+                                    if (!isPaused) {
+                                        events.forEach(appendLog);
+                                    }
+                                };
+                                
+                                current.onclose = function(event) {
+                                    connectionStatus.textContent = 'Disconnected';
+                                    connectionStatus.classList.remove('connected');
+                                    connectionStatus.classList.add('disconnected');
+                                    console.log('Binary WebSocket closed (' + event.code + ' ' + event.reason + ') - will try to reconnect');
+                                    if (socket === current) {
+                                        setTimeout(function() { connect(true); }, 5000);
+                                    }
+                                };
+                            }
+                            
+                            // A frame is [base, strings, events]; levels, threads, loggers and stack frames are indexes into
+                            // the strings received on this connection, and IDs and timestamps are deltas to the previous event
+                            function decodeFrame(buffer) {
+                                const frame = decodeCbor(buffer);
+                                strings = frame[0] === 0 ? frame[1] : strings.concat(frame[1]);
+                                let id = 0;
+                                let timestamp = 0;
+                                return frame[2].map(function(row) {
+                                    id += row[0];
+                                    timestamp += row[1];
+                                    const logData = {
+                                        id: id,
+                                        timestamp: new Date(timestamp).toLocaleTimeString(),
+                                        level: strings[row[2]],
+                                        thread: strings[row[3]],
+                                        logger: strings[row[4]],
+                                        message: row[5]
+                                    };
+                                    if (row.length > 6) {
+                                        logData.exception = row[6];
+                                        if (row[7].length > 0) {
+                                            logData.stackTrace = row[7].map(function(index) { return strings[index]; });
+                                        }
+                                    }
+                                    return logData;
+                                });
+                            }
+                            
+                            // Minimal CBOR (RFC 8949) decoder: integers, strings, arrays, maps, floats and simple values
+                            function decodeCbor(buffer) {
+                                const view = new DataView(buffer);
+                                const textDecoder = new TextDecoder();
+                                const BREAK = {};
+                                let offset = 0;
+                                
+                                function argument(info) {
+                                    let value;
+                                    switch (info) {
+                                        case 24: value = view.getUint8(offset); offset += 1; return value;
+                                        case 25: value = view.getUint16(offset); offset += 2; return value;
+                                        case 26: value = view.getUint32(offset); offset += 4; return value;
+                                        case 27: value = Number(view.getBigUint64(offset)); offset += 8; return value;
+                                        case 31: return -1;
+                                        default:
+                                            if (info < 24) {
+                                                return info;
+                                            }
+                                            throw new Error('Invalid CBOR argument: ' + info);
+                                    }
                                 }
                                 
-                                // Check if log matches text filter
-                                if (filterText && !logData.message.toLowerCase().includes(filterText.toLowerCase()) &&
-                                    !logData.logger.toLowerCase().includes(filterText.toLowerCase())) {
-                                    return;
+                                function bytes(length) {
+                                    const chunk = new Uint8Array(buffer, offset, length);
+                                    offset += length;
+                                    return chunk;
                                 }
                                 
+                                function item() {
+                                    const initial = view.getUint8(offset++);
+                                    const major = initial >> 5;
+                                    const info = initial & 31;
+                                    if (major === 7) {
+                                        switch (info) {
+                                            case 20: return false;
+                                            case 21: return true;
+                                            case 22: return null;
+                                            case 23: return undefined;
+                                            case 26: offset += 4; return view.getFloat32(offset - 4);
+                                            case 27: offset += 8; return view.getFloat64(offset - 8);
+                                            case 31: return BREAK;
+                                            default: throw new Error('Unsupported CBOR simple value: ' + info);
+                                        }
+                                    }
+                                    const length = argument(info);
+                                    switch (major) {
+                                        case 0: return length;
+                                        case 1: return -1 - length;
+                                        case 2:
+                                        case 3: {
+                                            if (length >= 0) {
+                                                const data = bytes(length);
+                                                return major === 3 ? textDecoder.decode(data) : data;
+                                            }
+                                            // Indefinite length: definite chunks up to a break
+                                            const chunks = [];
+                                            for (let chunk = item(); chunk !== BREAK; chunk = item()) {
+                                                chunks.push(chunk);
+                                            }
+                                            return chunks.join('');
+                                        }
+                                        case 4: {
+                                            const array = [];
+                                            for (let i = 0; length < 0 || i < length; i++) {
+                                                const element = item();
+                                                if (element === BREAK) {
+                                                    break;
+                                                }
+                                                array.push(element);
+                                            }
+                                            return array;
+                                        }
+                                        case 5: {
+                                            const map = {};
+                                            for (let i = 0; length < 0 || i < length; i++) {
+                                                const key = item();
+                                                if (key === BREAK) {
+                                                    break;
+                                                }
+                                                map[key] = item();
+                                            }
+                                            return map;
+                                        }
+                                        default:
+                                            // Tags carry no meaning for log frames; decode the tagged item
+                                            return item();
+                                    }
+                                }
+                                
+                                return item();
+                            }
+                            
+                            function appendLog(logData) {
                                 const logEntry = document.createElement('div');
                                 logEntry.className = 'log-entry';
                                 
@@ -295,17 +518,6 @@ public class SseLiveLogsController {
                                 }
                             }
                             
-                            function getLogLevelValue(level) {
-                                switch(level) {
-                                    case 'TRACE': return 0;
-                                    case 'DEBUG': return 1;
-                                    case 'INFO': return 2;
-                                    case 'WARN': return 3;
-                                    case 'ERROR': return 4;
-                                    default: return 2;
-                                }
-                            }
-                            
                             function shortenLogger(logger) {
                                 if (logger.length > 30) {
                                     const parts = logger.split('.');
@@ -337,10 +549,21 @@ public class SseLiveLogsController {
                                 pauseResumeButton.textContent = isPaused ? 'Resume' : 'Pause';
                             });
                             
-                            reconnectButton.addEventListener('click', function() {
+                            transportSelect.addEventListener('change', function() {
+                                // Continue after the last event received over the previous transport
+                                connect(true);
+                            });
+                            
+                            logLevelSelect.addEventListener('change', function() {
+                                // Resubscribe so the server applies the new level
+                                logWindow.innerHTML = '';
                                 connect();
                             });
                             
+                            reconnectButton.addEventListener('click', function() {
+                                connect(true);
+                            });
+                            
                             scrollToBottomButton.addEventListener('click', function() {
                                 logWindow.scrollTop = logWindow.scrollHeight;
                                 autoScroll = true;
@@ -355,17 +578,18 @@ public class SseLiveLogsController {
                             searchInput.addEventListener('keyup', function(event) {
                                 if (event.key === 'Enter') {
                                     filterText = searchInput.value;
-                                    // Clear and reapply the filter
+                                    // Clear and resubscribe with the new filter
                                     logWindow.innerHTML = '';
+                                    connect();
                                 }
                             });
                             
-                            // Initialize SSE connection
+                            // Initialize connection
                             connect();
                         });
                     </script>
                 </body>
                 </html>
-                """;
+                """.replace("__BINARY_WEB_SOCKET_PATH__", logConfig.getBinaryWebSocketPath());
     }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package io.joshuasalcedo.commonlibs.domain.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that collapses log storms before any event is created.
+ * <p>
+ * Messages at or above a minimum level are grouped by logger and message template. Within a time
+ * window, the first {@code allowedRepeats} occurrences are logged normally; further ones are denied
+ * and only counted. When the window ends, a single summary event with the repeat count is logged
+ * instead, carrying the exception of the first suppressed occurrence, so a burst of identical
+ * errors costs every appender (files, live logs, WebSocket) constant work. Suppressed events are
+ * dropped from all appenders, which is why busy loops logging below the minimum level are left alone.
+ */
+public class LogStormFilter extends TurboFilter {
+
+    /**
+     * Marker of the summary events; they are never suppressed themselves
+     */
+    public static final Marker SUMMARY = MarkerFactory.getMarker("LOG_STORM_SUMMARY");
+
+    private static final String FQCN = LogStormFilter.class.getName();
+
+    /**
+     * Occurrence count of a window that has been closed and summarised
+     */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final long windowNanos;
+    private final Level minLevel;
+    private final long allowedRepeats;
+    private final int maxTrackedMessages;
+    private final Map<Key, Window> windows = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    /**
+     * @param windowMs           length of a suppression window in milliseconds
+     * @param minLevel           lowest level that is suppressed; events below it are always logged
+     * @param allowedRepeats     occurrences per window that are logged before suppression starts
+     * @param maxTrackedMessages maximum number of distinct messages tracked at once
+     */
+    public LogStormFilter(long windowMs, Level minLevel, int allowedRepeats, int maxTrackedMessages) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, windowMs));
+        this.minLevel = minLevel;
+        this.allowedRepeats = Math.max(1, allowedRepeats);
+        this.maxTrackedMessages = maxTrackedMessages;
+        setName("log-storm");
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-storm-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodNanos = windowNanos;
+        flusher.scheduleAtFixedRate(this::closeExpiredWindows, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        super.start();
+    }
+
+    /**
+     * Stop suppressing, log the summaries of all open windows and detach from the logger context.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        windows.forEach(this::close);
+        if (getContext() instanceof LoggerContext loggerContext) {
+            loggerContext.getTurboFilterList().remove(this);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks carry no message; disabled levels are rejected by the logger anyway
+        if (!isStarted() || format == null || level == null || SUMMARY.equals(marker)
+                || !level.isGreaterOrEqual(minLevel) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long now = System.nanoTime();
+        Key key = new Key(logger.getName(), format);
+        Window window = windows.get(key);
+        if (window != null && now - window.startNanos >= windowNanos) {
+            close(key, window);
+            window = null;
+        }
+        if (window == null) {
+            if (windows.size() >= maxTrackedMessages) {
+                return FilterReply.NEUTRAL;
+            }
+            Window opened = new Window(logger, level, now);
+            window = windows.putIfAbsent(key, opened);
+            if (window == null) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+
+        long occurrences = window.occurrences.incrementAndGet();
+        if (occurrences < 0 || occurrences <= allowedRepeats) {
+            // Within the allowance, or the window was closed concurrently
+            return FilterReply.NEUTRAL;
+        }
+        if (occurrences == allowedRepeats + 1) {
+            // Formatted once per window, on the logging thread that owns the arguments
+            window.sample = MessageFormatter.arrayFormat(format, params).getMessage();
+        }
+        if (window.throwable == null) {
+            // A parameterized call passes its exception as the last argument
+            Throwable thrown = t != null ? t : MessageFormatter.getThrowableCandidate(params);
+            if (thrown != null) {
+                window.throwable = thrown;
+            }
+        }
+        return FilterReply.DENY;
+    }
+
+    private void closeExpiredWindows() {
+        long now = System.nanoTime();
+        windows.forEach((key, window) -> {
+            if (now - window.startNanos >= windowNanos) {
+                close(key, window);
+            }
+        });
+    }
+
+    /**
+     * Remove the window and log its summary if anything was suppressed.
+     * Only the thread that removes the window reads its final count.
+     */
+    private void close(Key key, Window window) {
+        if (!windows.remove(key, window)) {
+            return;
+        }
+        long suppressed = window.occurrences.getAndSet(CLOSED) - allowedRepeats;
+        if (suppressed > 0) {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - window.startNanos);
+            String sample = window.sample != null ? window.sample : key.format();
+            window.logger.log(SUMMARY, FQCN, Level.toLocationAwareLoggerInteger(window.level),
+                    sample + " [repeated " + suppressed + " more times in " + elapsedMs + " ms]", null,
+                    window.throwable);
+        }
+    }
+
+    private record Key(String loggerName, String format) {
+    }
+
+    private static final class Window {
+        private final Logger logger;
+        private final Level level;
+        private final long startNanos;
+        private final AtomicLong occurrences = new AtomicLong(1);
+        private volatile String sample;
+        private volatile Throwable throwable;
+
+        Window(Logger logger, Level level, long startNanos) {
+            this.logger = logger;
+            this.level = level;
+            this.startNanos = startNanos;
+        }
+    }
+}
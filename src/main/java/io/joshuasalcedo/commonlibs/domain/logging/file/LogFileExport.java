@@ -0,0 +1,64 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogFilter;
+
+import java.io.IOException;
+
+/**
+ * Writes the events of a log file as newline-delimited JSON.
+ * <p>
+ * Every event becomes one object with {@code timestamp} (epoch millis), {@code level},
+ * {@code thread}, {@code logger}, {@code message} and, if it has one, {@code stackTrace}. The
+ * fields are written straight from the buffer of the {@link LogFileRecordReader} through a single
+ * generator, so no strings are created per event.
+ */
+public final class LogFileExport {
+
+    private LogFileExport() {
+    }
+
+    /**
+     * Write the events that pass the filter.
+     *
+     * @param reader    events to export
+     * @param filter    server-side filter
+     * @param toMillis  only events at or before this epoch millis; may be {@code null}
+     * @param limit     maximum number of events; 0 is unlimited
+     * @param generator generator of the response, used for all events
+     * @return number of events written
+     */
+    public static long export(LogFileRecordReader reader, LiveLogFilter filter, Long toMillis, long limit,
+                              JsonGenerator generator) throws IOException {
+        long written = 0;
+        while ((limit <= 0 || written < limit) && reader.next()) {
+            if (toMillis != null && reader.getTimestamp() > toMillis) {
+                // Events are written in time order
+                break;
+            }
+            if (!filter.matches(reader.getTimestamp(), reader.getLevel(), reader.getLogger(), reader.getMessage())) {
+                continue;
+            }
+            generator.writeStartObject();
+            generator.writeNumberField("timestamp", reader.getTimestamp());
+            generator.writeStringField("level", reader.getLevel().toString());
+            writeField(generator, "thread", reader.getThread());
+            writeField(generator, "logger", reader.getLogger());
+            writeField(generator, "message", reader.getMessage());
+            if (reader.getStackTrace().length() > 0) {
+                writeField(generator, "stackTrace", reader.getStackTrace());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            written++;
+        }
+        generator.flush();
+        return written;
+    }
+
+    private static void writeField(JsonGenerator generator, String name, LogFileRecordReader.Field field)
+            throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(field.array(), field.offset(), field.length());
+    }
+}
@@ -0,0 +1,520 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import io.joshuasalcedo.commonlibs.domain.logging.live.LiveLogConnectionLimits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Follows a log file as it grows, like {@code tail -f}, and pushes the appended bytes to clients.
+ * <p>
+ * A single thread polls the file and reads every appended chunk once for all clients. Only
+ * complete lines are sent, so a line or character is never split between two chunks. Rollover is
+ * detected by the identity of the file: when a new file appears at the path, the rest of the old
+ * one is read from the still open channel before continuing at the start of the new one, so no
+ * line is lost. A file that becomes shorter than the position read so far was truncated and is
+ * read again from its start. After a read error the same file is read again from where it was left.
+ * The file is only open while at least one client follows it. A client that joins while the
+ * reader is behind starts at the end of the file as it was when it joined.
+ * <p>
+ * Every client has its own queue, written by its own sender task, so a slow client never holds
+ * up the others. The file is read as fast as the fastest client takes it; a client that falls
+ * behind by more than its queue can hold is disconnected. Connections older than the maximum
+ * lifetime are closed. Heartbeats are off unless enabled: the body is plain log content, so the
+ * only heartbeat there is, an empty line, shows up in it.
+ */
+public class LogFileFollower {
+
+    /**
+     * Destination of the appended bytes for one client connection
+     */
+    public interface Sink {
+        void send(byte[] chunk) throws Exception;
+
+        void close();
+    }
+
+    private static final byte[] HEARTBEAT = {'\n'};
+
+    /**
+     * Start offset of a follower that receives every chunk
+     */
+    private static final long RECEIVING = -1;
+
+    /**
+     * Start offset of a follower that has not been placed at the end of the file yet
+     */
+    private static final long JOINING = -2;
+
+    private final Path path;
+    private final long pollIntervalMs;
+    private final int maxChunkBytes;
+    private final long maxQueuedBytes;
+    private final long heartbeatNanos;
+    private final long maxLifetimeNanos;
+    private final int maxFollowers;
+    private final List<Follower> followers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+
+    // Only accessed by the scheduler thread
+    private FileChannel channel;
+    private Object fileKey;
+    private long position;
+    private byte lastByte = '\n';
+
+    /**
+     * Set while reading waits for a follower to make room in its queue
+     */
+    private volatile boolean backlogged;
+
+    /**
+     * @param path           followed log file
+     * @param pollIntervalMs interval between two checks of the file in milliseconds
+     * @param maxChunkBytes  maximum number of bytes sent at once; longer lines are split
+     * @param maxQueuedBytes maximum number of bytes waiting to be sent to one client before it is disconnected
+     * @param limits         interval of the empty-line heartbeats (0 disables them), maximum lifetime and
+     *                       maximum number of clients
+     */
+    public LogFileFollower(Path path, long pollIntervalMs, int maxChunkBytes, long maxQueuedBytes,
+                           LiveLogConnectionLimits limits) {
+        this.path = path;
+        this.pollIntervalMs = Math.max(1, pollIntervalMs);
+        this.maxChunkBytes = Math.max(1, maxChunkBytes);
+        this.maxQueuedBytes = Math.max(this.maxChunkBytes, maxQueuedBytes);
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, limits.heartbeatIntervalMs()));
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, limits.maxLifetimeMs()));
+        this.maxFollowers = limits.maxSubscribers();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-file-follower");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.senders = Executors.newCachedThreadPool(daemonThreadFactory("log-file-follower-sender-"));
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop following and close all clients.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        for (Follower follower : followers) {
+            follower.sink.close();
+        }
+        followers.clear();
+    }
+
+    /**
+     * Start pushing the bytes appended from now on to the sink.
+     *
+     * @return {@code false} if the maximum number of clients is reached
+     */
+    public synchronized boolean subscribe(Sink sink) {
+        // Clients that are still being closed count until their sender is done
+        if (maxFollowers > 0 && followers.size() >= maxFollowers) {
+            return false;
+        }
+        followers.add(new Follower(sink));
+        return true;
+    }
+
+    public void unsubscribe(Sink sink) {
+        followers.removeIf(follower -> follower.sink == sink);
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    private void poll() {
+        try {
+            if (followers.isEmpty()) {
+                closeChannel();
+                // The next follower starts at the end of the file again
+                fileKey = null;
+                return;
+            }
+            keepAlive();
+            BasicFileAttributes attributes = attributes();
+            if (channel == null) {
+                if (attributes == null) {
+                    return;
+                }
+                if (fileKey == null) {
+                    // Followers only receive what is appended after they joined
+                    open(attributes, attributes.size());
+                    placeNewFollowers();
+                    return;
+                }
+                if (Objects.equals(identity(attributes), fileKey)) {
+                    // Resume after a read error where the last read ended
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                } else {
+                    // Rolled over while the old file could not be read; what was left of it is gone
+                    endLine();
+                    open(attributes, 0);
+                    startAtBeginning();
+                }
+            }
+
+            if (attributes != null && !Objects.equals(identity(attributes), fileKey)) {
+                // Rolled over: finish the old file, including a last line without terminator
+                if (!readAvailable(false)) {
+                    // Followers have not taken the rest of the old file yet
+                    return;
+                }
+                endLine();
+                closeChannel();
+                open(attributes, 0);
+                startAtBeginning();
+            } else if (channel.size() < position) {
+                // Truncated in place
+                position = 0;
+                startAtBeginning();
+            }
+            placeNewFollowers();
+            readAvailable(true);
+        } catch (IOException e) {
+            // Read again from the last position on the next poll
+            closeChannel();
+        }
+    }
+
+    /**
+     * Send a heartbeat to idle followers and disconnect those past their lifetime.
+     */
+    private void keepAlive() {
+        long now = System.nanoTime();
+        for (Follower follower : followers) {
+            if (maxLifetimeNanos > 0 && now - follower.connectedNanos >= maxLifetimeNanos) {
+                disconnect(follower);
+            } else if (heartbeatNanos > 0 && now - follower.lastQueuedNanos >= heartbeatNanos) {
+                synchronized (follower) {
+                    if (!follower.lineStart) {
+                        // Part of a line longer than a chunk is still being sent
+                        continue;
+                    }
+                }
+                enqueue(follower, HEARTBEAT);
+            }
+        }
+    }
+
+    /**
+     * Send everything appended since the last read, as long as a follower has room for it.
+     *
+     * @param completeLines whether a last line without terminator is kept until it is complete
+     * @return {@code false} if reading stopped before the end of the file because all followers are busy
+     */
+    private boolean readAvailable(boolean completeLines) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(maxChunkBytes);
+        while (position < channel.size()) {
+            if (!hasRoom()) {
+                // Continued by the sender that makes room
+                backlogged = true;
+                if (!hasRoom()) {
+                    return false;
+                }
+                backlogged = false;
+            }
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return true;
+            }
+            int length = read;
+            if (completeLines) {
+                length = lastLineEnd(buffer.array(), read);
+                if (length == 0) {
+                    if (read < buffer.capacity()) {
+                        return true;
+                    }
+                    // A single line longer than a chunk
+                    length = read;
+                }
+            }
+            publish(Arrays.copyOf(buffer.array(), length), position);
+            lastByte = buffer.get(length - 1);
+            position += length;
+        }
+        return true;
+    }
+
+    /**
+     * Whether a follower has at least half of its queue free.
+     */
+    private boolean hasRoom() {
+        for (Follower follower : followers) {
+            synchronized (follower) {
+                if (!follower.closed && follower.queuedBytes <= maxQueuedBytes / 2) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Let the followers that joined since the last poll start at the current end of the file.
+     */
+    private void placeNewFollowers() throws IOException {
+        long end = -1;
+        for (Follower follower : followers) {
+            if (follower.startOffset == JOINING) {
+                if (end < 0) {
+                    end = channel.size();
+                }
+                follower.startOffset = end;
+            }
+        }
+    }
+
+    /**
+     * Send the content of a new or truncated file to all followers that were already placed.
+     */
+    private void startAtBeginning() {
+        for (Follower follower : followers) {
+            if (follower.startOffset != JOINING) {
+                follower.startOffset = RECEIVING;
+            }
+        }
+    }
+
+    private static int lastLineEnd(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Terminate a last line of the old file that has none.
+     */
+    private void endLine() {
+        if (lastByte != '\n') {
+            publish(new byte[]{'\n'}, -1);
+            lastByte = '\n';
+        }
+    }
+
+    /**
+     * Queue the chunk for every follower, leaving out what lies before the offset a follower joined at.
+     *
+     * @param offset offset of the chunk in the file; -1 for bytes that are not from the file
+     */
+    private void publish(byte[] chunk, long offset) {
+        for (Follower follower : followers) {
+            long start = follower.startOffset;
+            if (start == RECEIVING) {
+                enqueue(follower, chunk);
+            } else if (start >= 0 && offset >= 0 && offset + chunk.length > start) {
+                // Begin at the first line that starts at or after the offset the follower joined at
+                int from = (int) Math.max(0, start - offset);
+                while (from < chunk.length && (from == 0 ? lastByte : chunk[from - 1]) != '\n') {
+                    from++;
+                }
+                if (from < chunk.length) {
+                    follower.startOffset = RECEIVING;
+                    enqueue(follower, from == 0 ? chunk : Arrays.copyOfRange(chunk, from, chunk.length));
+                } else {
+                    follower.startOffset = offset + chunk.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue the chunk for the follower and start its sender if it is not running.
+     */
+    private void enqueue(Follower follower, byte[] chunk) {
+        synchronized (follower) {
+            if (follower.closed) {
+                return;
+            }
+            if (follower.queuedBytes + chunk.length > maxQueuedBytes) {
+                // Too far behind the fastest follower
+                disconnect(follower);
+                return;
+            }
+            follower.queue.add(chunk);
+            follower.queuedBytes += chunk.length;
+            follower.lastQueuedNanos = System.nanoTime();
+            follower.lineStart = chunk[chunk.length - 1] == '\n';
+            schedule(follower);
+        }
+    }
+
+    /**
+     * Drop what is queued for the follower and let its sender close it.
+     */
+    private void disconnect(Follower follower) {
+        synchronized (follower) {
+            if (follower.closed) {
+                return;
+            }
+            follower.closed = true;
+            follower.queue.clear();
+            follower.queuedBytes = 0;
+            schedule(follower);
+        }
+    }
+
+    /**
+     * Called while holding the lock of the follower.
+     */
+    private void schedule(Follower follower) {
+        if (follower.sending) {
+            return;
+        }
+        follower.sending = true;
+        try {
+            senders.execute(() -> send(follower));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            follower.sending = false;
+        }
+    }
+
+    /**
+     * Write the queued chunks of the follower, on a sender thread.
+     */
+    private void send(Follower follower) {
+        while (true) {
+            byte[] chunk;
+            synchronized (follower) {
+                chunk = follower.closed ? null : follower.queue.poll();
+                if (chunk == null && !follower.closed) {
+                    follower.sending = false;
+                    return;
+                }
+            }
+            if (chunk == null) {
+                break;
+            }
+            try {
+                follower.sink.send(chunk);
+            } catch (Exception e) {
+                // The client went away
+                synchronized (follower) {
+                    follower.closed = true;
+                    follower.queue.clear();
+                    follower.queuedBytes = 0;
+                }
+                break;
+            }
+            boolean room;
+            synchronized (follower) {
+                follower.queuedBytes -= chunk.length;
+                room = follower.queuedBytes <= maxQueuedBytes / 2;
+            }
+            if (room && backlogged) {
+                backlogged = false;
+                try {
+                    scheduler.execute(this::poll);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                }
+            }
+        }
+        // Closed from the sender, which may be blocked in a write that the close would wait for
+        try {
+            follower.sink.close();
+        } finally {
+            followers.remove(follower);
+        }
+    }
+
+    private void open(BasicFileAttributes attributes, long from) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileKey = identity(attributes);
+        position = from;
+        lastByte = '\n';
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing left to read from it
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Attributes of the file at the path, or {@code null} while it does not exist, e.g. during rollover.
+     */
+    private BasicFileAttributes attributes() throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The inode where the file system provides one, otherwise the creation time.
+     */
+    private static Object identity(BasicFileAttributes attributes) {
+        Object key = attributes.fileKey();
+        return key != null ? key : attributes.creationTime();
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A client with the chunks waiting to be written to it
+     */
+    private static final class Follower {
+        private final Sink sink;
+        private final long connectedNanos = System.nanoTime();
+
+        // Only accessed by the scheduler thread
+        private long startOffset = JOINING;
+
+        // Guarded by the follower
+        private final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+        private long queuedBytes;
+        private long lastQueuedNanos = connectedNanos;
+        private boolean lineStart = true;
+        private boolean sending;
+        private boolean closed;
+
+        private Follower(Sink sink) {
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Reads the prefix that the {@code FILE} appender of {@code logback-spring.xml} writes at the
+ * start of every event:
+ * <pre>
+ * [ INFO  ] 2025-05-04 09:15:02.123 PM [main] com.acme.Service : message
+ * </pre>
+ * Lines without this prefix continue the previous event, e.g. with a stack trace. The timestamp
+ * is local time of the logging JVM with a 12-hour clock; the fields are read in place without
+ * a formatter.
+ */
+public final class LogFileLayout {
+
+    /**
+     * Start of the timestamp, after {@code "[ "}, the level padded to 5 and {@code " ] "}
+     */
+    static final int TIMESTAMP_OFFSET = 10;
+
+    /**
+     * Length of {@code "yyyy-MM-dd hh:mm:ss.SSS"}
+     */
+    private static final int TIMESTAMP_LENGTH = 23;
+
+    private LogFileLayout() {
+    }
+
+    /**
+     * Whether the line starts a new event.
+     */
+    public static boolean isEventStart(CharSequence line) {
+        return line.length() > TIMESTAMP_OFFSET + TIMESTAMP_LENGTH
+                && line.charAt(0) == '[' && line.charAt(1) == ' '
+                && line.charAt(7) == ' ' && line.charAt(8) == ']' && line.charAt(9) == ' '
+                && isDigit(line.charAt(TIMESTAMP_OFFSET));
+    }
+
+    /**
+     * Time of the event started by the line.
+     *
+     * @param zone time zone of the logging JVM
+     * @return epoch millis, or -1 if the line does not start an event
+     */
+    public static long timestamp(CharSequence line, ZoneId zone) {
+        if (!isEventStart(line)) {
+            return -1;
+        }
+        int t = TIMESTAMP_OFFSET;
+        int year = number(line, t, 4);
+        int month = number(line, t + 5, 2);
+        int day = number(line, t + 8, 2);
+        int hour = number(line, t + 11, 2);
+        int minute = number(line, t + 14, 2);
+        int second = number(line, t + 17, 2);
+        int millis = number(line, t + 20, 3);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || millis < 0
+                || line.charAt(t + 4) != '-' || line.charAt(t + 13) != ':' || line.charAt(t + 19) != '.') {
+            return -1;
+        }
+        // Marker after the time: AM or PM
+        int marker = t + TIMESTAMP_LENGTH + 1;
+        if (marker < line.length()) {
+            char c = line.charAt(marker);
+            hour = hour % 12 + (c == 'P' || c == 'p' ? 12 : 0);
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, millis * 1_000_000)
+                    .atZone(zone)
+                    .toInstant()
+                    .toEpochMilli();
+        } catch (DateTimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Decimal number of the given digits, or -1 if one of them is not a digit.
+     */
+    private static int number(CharSequence line, int from, int digits) {
+        int value = 0;
+        for (int i = from; i < from + digits; i++) {
+            char c = line.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,178 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sparse index of the line offsets of a log file for reading pages at any line.
+ * <p>
+ * The byte offset of every {@code interval}-th line is kept in memory. A page is read by jumping
+ * to the nearest indexed line before it and skipping at most {@code interval - 1} lines, so the
+ * cost does not depend on where the page lies in the file. The index is extended with the lines
+ * appended since the last read, and built again when the file was rolled over or truncated. The
+ * file is read in blocks through one reused direct buffer, so no mapping keeps a rolled or deleted
+ * file open; only complete lines are indexed and returned.
+ */
+public class LogFileLineIndex {
+
+    /**
+     * A page of lines
+     *
+     * @param fromLine   number of the first line, starting at 1
+     * @param totalLines number of complete lines in the file
+     * @param lines      the lines, without terminators
+     */
+    public record Page(long fromLine, long totalLines, List<String> lines) {
+    }
+
+    private static final int BLOCK_SIZE = 256 * 1024;
+
+    private final Path path;
+    private final int interval;
+
+    private Object fileKey;
+    private long[] checkpoints = new long[64];
+    private int checkpointCount;
+    private long lineCount;
+    private long indexedTo;
+
+    // Only used while holding the lock
+    private final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE);
+
+    /**
+     * @param path     log file
+     * @param interval number of lines between two indexed offsets
+     */
+    public LogFileLineIndex(Path path, int interval) {
+        this.path = path;
+        this.interval = Math.max(1, interval);
+    }
+
+    /**
+     * Read up to {@code count} complete lines starting at the given line.
+     *
+     * @param fromLine number of the first line, starting at 1
+     * @param count    maximum number of lines
+     */
+    public synchronized Page read(long fromLine, int count) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            update(channel);
+            List<String> lines = new ArrayList<>();
+            long first = fromLine - 1;
+            if (first >= lineCount || count <= 0) {
+                return new Page(fromLine, lineCount, lines);
+            }
+            long position = checkpoints[(int) (first / interval)];
+            long skip = first % interval;
+            long remaining = Math.min(count, lineCount - first);
+
+            long blockStart = position;
+            block.clear().limit(0);
+            long lineStart = position;
+            while (remaining > 0) {
+                if (!block.hasRemaining()) {
+                    blockStart = position;
+                    fill(channel, blockStart, indexedTo);
+                }
+                if (block.get() == '\n') {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        lines.add(decode(channel, blockStart, lineStart, position));
+                        remaining--;
+                    }
+                    lineStart = position + 1;
+                }
+                position++;
+            }
+            return new Page(fromLine, lineCount, lines);
+        }
+    }
+
+    /**
+     * Index the lines appended since the last read, or the whole file again if it was replaced.
+     */
+    private void update(FileChannel channel) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        // The inode where the file system provides one, otherwise the creation time
+        Object key = attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+        long size = channel.size();
+        if (!Objects.equals(key, fileKey) || size < indexedTo) {
+            fileKey = key;
+            checkpointCount = 0;
+            lineCount = 0;
+            indexedTo = 0;
+            addCheckpoint(0);
+        }
+        long position = indexedTo;
+        while (position < size) {
+            long blockStart = position;
+            fill(channel, blockStart, size);
+            int length = block.limit();
+            for (int i = 0; i < length; i++) {
+                if (block.get(i) == '\n') {
+                    lineCount++;
+                    indexedTo = blockStart + i + 1;
+                    if (lineCount % interval == 0) {
+                        addCheckpoint(indexedTo);
+                    }
+                }
+            }
+            position = blockStart + length;
+        }
+    }
+
+    /**
+     * Read the block starting at the position and ending at most at the limit into the buffer, ready to be read.
+     */
+    private void fill(FileChannel channel, long position, long limit) throws IOException {
+        block.clear().limit((int) Math.min(BLOCK_SIZE, limit - position));
+        while (block.hasRemaining()) {
+            if (channel.read(block, position + block.position()) < 0) {
+                throw new IOException("Log file was truncated while reading");
+            }
+        }
+        block.flip();
+    }
+
+    private void addCheckpoint(long offset) {
+        if (checkpointCount == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+        }
+        checkpoints[checkpointCount++] = offset;
+    }
+
+    /**
+     * Line between the given offsets, taken from the current block when it lies within it.
+     */
+    private String decode(FileChannel channel, long blockStart, long start, long newline) throws IOException {
+        int length = (int) (newline - start);
+        byte[] bytes = new byte[length];
+        if (start >= blockStart) {
+            block.get((int) (start - blockStart), bytes);
+        } else {
+            // Started in an earlier block
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Log file was truncated while reading");
+                }
+            }
+        }
+        // Lines written on Windows end with CRLF
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
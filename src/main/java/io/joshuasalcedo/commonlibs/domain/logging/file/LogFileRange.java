@@ -0,0 +1,66 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+/**
+ * A single byte range of a log file requested with an HTTP {@code Range} header.
+ *
+ * @param start first byte, inclusive
+ * @param end   last byte, inclusive
+ */
+public record LogFileRange(long start, long end) {
+
+    /**
+     * Range that lies entirely outside the file, answered with 416
+     */
+    public static final LogFileRange UNSATISFIABLE = new LogFileRange(-1, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * {@code Content-Range} header value for this range of a file of the given size.
+     */
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    /**
+     * Parse a {@code Range} header against the current file size.
+     * Only a single range is served; multiple or malformed ranges are ignored, as RFC 9110 allows,
+     * and the whole file is sent instead.
+     *
+     * @return the range, {@link #UNSATISFIABLE}, or {@code null} to send the whole file
+     */
+    public static LogFileRange parse(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new LogFileRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                return null;
+            }
+            return start < size ? new LogFileRange(start, end) : UNSATISFIABLE;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import ch.qos.logback.classic.Level;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Reads the events of a log file in the {@code FILE} layout of {@code logback-spring.xml} one
+ * after another, with their fields split out.
+ * <p>
+ * The continuation lines of an event are folded into it: from the line before the first
+ * {@code "\tat "} frame on they are its stack trace, earlier ones continue its message. Lines
+ * before the first event of the file are skipped.
+ * <p>
+ * The reader is meant for files larger than the heap: only the current event is held, in a
+ * buffer that is reused for the next one. The fields are views of that buffer and are only valid
+ * until {@link #next()} is called again; call {@code toString()} to keep one.
+ */
+public class LogFileRecordReader implements Closeable {
+
+    /**
+     * Characters of one field of the current event
+     */
+    public static final class Field implements CharSequence {
+        private char[] chars;
+        private int offset;
+        private int length;
+
+        private void set(char[] chars, int start, int end) {
+            this.chars = chars;
+            this.offset = start;
+            this.length = Math.max(0, end - start);
+        }
+
+        public char[] array() {
+            return chars;
+        }
+
+        public int offset() {
+            return offset;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, offset, length);
+        }
+    }
+
+    /**
+     * Width of the logger column, {@code %-40.40logger}
+     */
+    private static final int LOGGER_WIDTH = 40;
+
+    private static final String LOGGER_SEPARATOR = " : ";
+
+    private final Reader reader;
+    private final ZoneId zone;
+
+    private final char[] input = new char[64 * 1024];
+    private int inputPosition;
+    private int inputLimit;
+
+    // The last line read; it starts the next event when hasLine is set
+    private char[] line = new char[1024];
+    private int lineLength;
+    private boolean hasLine;
+    private boolean started;
+
+    private char[] event = new char[4096];
+    private int eventLength;
+    private int firstLineEnd;
+
+    private long lineTimestamp;
+    private long timestamp;
+    private Level level;
+    private final Field thread = new Field();
+    private final Field logger = new Field();
+    private final Field message = new Field();
+    private final Field stackTrace = new Field();
+    private final Field lineView = new Field();
+
+    /**
+     * @param reader log file content; buffering is done by this reader
+     * @param zone   time zone of the timestamps written to the file
+     */
+    public LogFileRecordReader(Reader reader, ZoneId zone) {
+        this.reader = reader;
+        this.zone = zone;
+    }
+
+    /**
+     * Move to the next event.
+     *
+     * @return {@code false} at the end of the file
+     */
+    public boolean next() throws IOException {
+        if (!started) {
+            started = true;
+            // Skip to the first event
+            do {
+                hasLine = readLine();
+            } while (hasLine && (lineTimestamp = LogFileLayout.timestamp(lineView(), zone)) < 0);
+        }
+        if (!hasLine) {
+            return false;
+        }
+
+        timestamp = lineTimestamp;
+        eventLength = 0;
+        append(line, lineLength);
+        firstLineEnd = eventLength;
+        int stackTraceStart = -1;
+        int previousLineStart = -1;
+
+        while ((hasLine = readLine())) {
+            lineTimestamp = LogFileLayout.timestamp(lineView(), zone);
+            if (lineTimestamp >= 0) {
+                break;
+            }
+            int lineStart = eventLength + 1;
+            if (stackTraceStart < 0 && lineLength >= 4 && line[0] == '\t' && line[1] == 'a' && line[2] == 't'
+                    && line[3] == ' ') {
+                // The exception line precedes the first frame
+                stackTraceStart = previousLineStart >= 0 ? previousLineStart : lineStart;
+            }
+            append('\n');
+            append(line, lineLength);
+            previousLineStart = lineStart;
+        }
+
+        // The buffer is complete, so the fields can refer to it
+        parseFirstLine(stackTraceStart >= 0 ? stackTraceStart - 1 : eventLength);
+        stackTrace.set(event, stackTraceStart >= 0 ? stackTraceStart : eventLength, eventLength);
+        return true;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public Field getThread() {
+        return thread;
+    }
+
+    /**
+     * Logger name as written to the file, abbreviated to 39 characters.
+     */
+    public Field getLogger() {
+        return logger;
+    }
+
+    /**
+     * Message, including continuation lines before the stack trace.
+     */
+    public Field getMessage() {
+        return message;
+    }
+
+    /**
+     * Exception line and stack frames; empty if the event has none.
+     */
+    public Field getStackTrace() {
+        return stackTrace;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Split the first line of the event into its fields.
+     *
+     * @param messageEnd end of the message, after the continuation lines that belong to it
+     */
+    private void parseFirstLine(int messageEnd) {
+        level = level(event[2]);
+
+        // "[thread] " follows the AM/PM marker; the thread name itself may contain brackets
+        int threadOpen = indexOf(" [", LogFileLayout.TIMESTAMP_OFFSET, firstLineEnd);
+        int threadStart = threadOpen >= 0 ? threadOpen + 2 : firstLineEnd;
+        int threadEnd = -1;
+        int loggerEnd = -1;
+        for (int i = indexOf("] ", threadStart, firstLineEnd); i >= 0; i = indexOf("] ", i + 1, firstLineEnd)) {
+            // The logger column is padded to a fixed width before the separator
+            if (startsWith(LOGGER_SEPARATOR, i + 2 + LOGGER_WIDTH)) {
+                threadEnd = i;
+                loggerEnd = i + 2 + LOGGER_WIDTH;
+                break;
+            }
+        }
+        if (threadEnd < 0) {
+            threadEnd = Math.max(threadStart, indexOf("] ", threadStart, firstLineEnd));
+            loggerEnd = indexOf(LOGGER_SEPARATOR, threadEnd, firstLineEnd);
+            if (loggerEnd < 0) {
+                loggerEnd = firstLineEnd;
+            }
+        }
+        int loggerStart = Math.min(threadEnd + 2, loggerEnd);
+        int trimmedLoggerEnd = loggerEnd;
+        while (trimmedLoggerEnd > loggerStart && event[trimmedLoggerEnd - 1] == ' ') {
+            trimmedLoggerEnd--;
+        }
+
+        thread.set(event, threadStart, threadEnd);
+        logger.set(event, loggerStart, trimmedLoggerEnd);
+        message.set(event, Math.min(loggerEnd + LOGGER_SEPARATOR.length(), firstLineEnd), messageEnd);
+    }
+
+    private static Level level(char first) {
+        return switch (first) {
+            case 'T' -> Level.TRACE;
+            case 'D' -> Level.DEBUG;
+            case 'I' -> Level.INFO;
+            case 'W' -> Level.WARN;
+            case 'E' -> Level.ERROR;
+            default -> Level.ALL;
+        };
+    }
+
+    private int indexOf(String value, int from, int to) {
+        for (int i = from; i <= to - value.length(); i++) {
+            if (startsWith(value, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(String value, int at) {
+        if (at < 0 || at + value.length() > firstLineEnd) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (event[at + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Field lineView() {
+        lineView.set(line, 0, lineLength);
+        return lineView;
+    }
+
+    /**
+     * Read the next line into the line buffer, without its terminator.
+     *
+     * @return {@code false} at the end of the file
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean read = false;
+        while (true) {
+            if (inputPosition == inputLimit) {
+                inputLimit = reader.read(input, 0, input.length);
+                inputPosition = 0;
+                if (inputLimit <= 0) {
+                    inputLimit = 0;
+                    return read;
+                }
+            }
+            read = true;
+            int start = inputPosition;
+            while (inputPosition < inputLimit && input[inputPosition] != '\n') {
+                inputPosition++;
+            }
+            int count = inputPosition - start;
+            if (lineLength + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+            }
+            System.arraycopy(input, start, line, lineLength, count);
+            lineLength += count;
+            if (inputPosition < inputLimit) {
+                inputPosition++;
+                // Lines written on Windows end with CRLF
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+        }
+    }
+
+    private void append(char c) {
+        if (eventLength == event.length) {
+            event = Arrays.copyOf(event, event.length * 2);
+        }
+        event[eventLength++] = c;
+    }
+
+    private void append(char[] chars, int length) {
+        if (eventLength + length > event.length) {
+            event = Arrays.copyOf(event, Math.max(event.length * 2, eventLength + length));
+        }
+        System.arraycopy(chars, 0, event, eventLength, length);
+        eventLength += length;
+    }
+}
@@ -0,0 +1,273 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Searches the current log file and its rolled {@code .log.gz} archives in parallel.
+ * <p>
+ * Every file is scanned by its own task on a fork-join pool. Events are matched as a whole,
+ * including the lines of their stack trace, and handed to the caller's thread as soon as they are
+ * found, so the results of different files are interleaved. A time range skips archives whose
+ * date lies outside of it, and stops scanning a file at the first event after it.
+ */
+public class LogFileSearch {
+
+    /**
+     * An event that matched, with the line it starts at
+     */
+    public record Match(String file, long line, Long timestamp, String text) {
+    }
+
+    /**
+     * Receives the matches on the thread that called {@link #search}
+     */
+    public interface MatchWriter {
+        void write(Match match) throws IOException;
+
+        /**
+         * Called whenever no further match is available right now.
+         */
+        void flush() throws IOException;
+    }
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final String ARCHIVE_SUFFIX = ".log.gz";
+
+    private final ForkJoinPool pool;
+    private final ZoneId zone;
+
+    /**
+     * @param parallelism number of files scanned at the same time
+     * @param zone        time zone of the timestamps written to the files
+     */
+    public LogFileSearch(int parallelism, ZoneId zone) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.zone = zone;
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The current log file followed by its archives, sorted by name.
+     *
+     * @param directory log directory
+     * @param appName   base name of the log files
+     */
+    public static List<Path> logFiles(Path directory, String appName) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path current = directory.resolve(appName + ".log");
+        if (Files.isRegularFile(current)) {
+            files.add(current);
+        }
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> entries = Files.list(directory)) {
+                entries.filter(path -> archiveDate(path, appName) != null)
+                        .sorted()
+                        .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Search the files and pass the matches to the writer until all files are scanned or the limit is reached.
+     *
+     * @param files   files to search, plain or gzip compressed
+     * @param appName base name of the log files, to read the date of the archives
+     * @param patterns all found in the text of matching events; none matches all
+     * @param from    only events at or after this epoch millis; may be {@code null}
+     * @param to      only events at or before this epoch millis; may be {@code null}
+     * @param limit   maximum number of matches
+     * @throws IOException if the writer failed; the remaining scans are cancelled
+     */
+    public void search(List<Path> files, String appName, List<Pattern> patterns, Long from, Long to, int limit,
+                       MatchWriter writer) throws IOException {
+        BlockingQueue<Match> matches = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger running = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (Path file : files) {
+            if (skip(file, appName, from, to)) {
+                continue;
+            }
+            running.incrementAndGet();
+            tasks.add(pool.submit(() -> {
+                try {
+                    scan(file, patterns, from, to, matches, cancelled);
+                } catch (IOException e) {
+                    // Removed by the rolling policy while searching; nothing more to find in it
+                } finally {
+                    running.decrementAndGet();
+                }
+            }));
+        }
+
+        int written = 0;
+        try {
+            while (written < limit) {
+                Match match = matches.poll();
+                if (match == null) {
+                    writer.flush();
+                    if (running.get() == 0 && matches.isEmpty()) {
+                        break;
+                    }
+                    match = matches.poll(100, TimeUnit.MILLISECONDS);
+                    if (match == null) {
+                        continue;
+                    }
+                }
+                writer.write(match);
+                written++;
+            }
+            writer.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cancelled.set(true);
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+
+    /**
+     * Whether the time range rules out every event of the file without reading it.
+     */
+    private boolean skip(Path file, String appName, Long from, Long to) {
+        try {
+            // The last event of a file was written before it was last modified
+            if (from != null && Files.getLastModifiedTime(file).toMillis() < from) {
+                return true;
+            }
+        } catch (IOException e) {
+            return true;
+        }
+        LocalDate date = archiveDate(file, appName);
+        if (date == null) {
+            return false;
+        }
+        // An archive holds events of the day in its name
+        long dayStart = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long dayEnd = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return (from != null && dayEnd <= from) || (to != null && dayStart > to);
+    }
+
+    private void scan(Path file, List<Pattern> patterns, Long from, Long to, BlockingQueue<Match> matches,
+                      AtomicBoolean cancelled) throws IOException {
+        String name = file.getFileName().toString();
+        try (BufferedReader reader = open(file)) {
+            StringBuilder event = new StringBuilder();
+            long eventLine = 0;
+            long eventTime = -1;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null && !cancelled.get()) {
+                lineNumber++;
+                long time = LogFileLayout.timestamp(line, zone);
+                if (time < 0 && lineNumber > 1) {
+                    event.append('\n').append(line);
+                    continue;
+                }
+                if (!offer(name, eventLine, eventTime, event, patterns, from, to, matches, cancelled)) {
+                    return;
+                }
+                if (to != null && time > to) {
+                    // Events are written in time order
+                    return;
+                }
+                event.setLength(0);
+                event.append(line);
+                eventLine = lineNumber;
+                eventTime = time;
+            }
+            offer(name, eventLine, eventTime, event, patterns, from, to, matches, cancelled);
+        }
+    }
+
+    /**
+     * Queue the event if it matches.
+     *
+     * @return {@code false} if the search was cancelled
+     */
+    private static boolean offer(String file, long line, long time, StringBuilder event, List<Pattern> patterns,
+                                 Long from, Long to, BlockingQueue<Match> matches, AtomicBoolean cancelled) {
+        if (line == 0) {
+            return true;
+        }
+        if (from != null || to != null) {
+            // Lines without a timestamp of their own cannot be placed within the range
+            if (time < 0 || (from != null && time < from) || (to != null && time > to)) {
+                return true;
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (!pattern.matcher(event).find()) {
+                return true;
+            }
+        }
+        Match match = new Match(file, line, time >= 0 ? time : null, event.toString());
+        try {
+            while (!matches.offer(match, 100, TimeUnit.MILLISECONDS)) {
+                if (cancelled.get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        try {
+            if (file.getFileName().toString().endsWith(".gz")) {
+                in = new GZIPInputStream(in, READ_BUFFER_SIZE);
+            }
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Day of an archive named {@code <appName>-yyyy-MM-dd-<index>.log.gz}, or {@code null} for other files.
+     */
+    static LocalDate archiveDate(Path file, String appName) {
+        String name = file.getFileName().toString();
+        String prefix = appName + "-";
+        if (!name.startsWith(prefix) || !name.endsWith(ARCHIVE_SUFFIX)
+                || name.length() < prefix.length() + 10 + ARCHIVE_SUFFIX.length()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(prefix.length(), prefix.length() + 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the lines logged around a point in time by a binary search over the byte offsets of a log file.
+ * <p>
+ * Events are written in time order, so the search probes the middle of the remaining range,
+ * moves to the start of the next event and reads only its timestamp prefix. Lines without a
+ * timestamp, e.g. of a stack trace, are skipped to the next event. About {@code log2(size)} probes
+ * of a few bytes each find the first event at or after the requested time.
+ */
+public final class LogFileSeek {
+
+    /**
+     * Lines around a point in time
+     *
+     * @param offset    byte offset of the first event at or after the time; the file size if there is none
+     * @param timestamp time of that event in epoch millis, or {@code null} if there is none
+     * @param before    lines before the offset, oldest first
+     * @param after     lines from the offset on
+     */
+    public record Window(long offset, Long timestamp, List<String> before, List<String> after) {
+    }
+
+    private static final int BLOCK_SIZE = 8192;
+
+    /**
+     * Bytes read at the start of a line to parse its timestamp
+     */
+    private static final int PREFIX_LENGTH = 64;
+
+    private LogFileSeek() {
+    }
+
+    /**
+     * @param path     log file
+     * @param time     epoch millis to look for
+     * @param zone     time zone of the timestamps written to the file
+     * @param before   maximum number of lines before the time
+     * @param after    maximum number of lines from the time on
+     * @param maxBytes maximum number of bytes read on either side
+     */
+    public static Window around(Path path, long time, ZoneId zone, int before, int after, long maxBytes)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long lo = 0;
+            long hi = size;
+            // Events starting before lo are older than the time, those starting at or after hi are not
+            while (lo < hi) {
+                long mid = lo + (hi - lo) / 2;
+                long[] event = nextEvent(channel, mid, hi, zone);
+                if (event == null) {
+                    hi = mid;
+                } else if (event[1] < time) {
+                    lo = event[0] + 1;
+                } else {
+                    hi = event[0];
+                }
+            }
+            long[] found = nextEvent(channel, lo, size, zone);
+            long offset = found != null ? found[0] : size;
+            return new Window(offset, found != null ? found[1] : null,
+                    LogFileTail.linesBefore(channel, offset, before, maxBytes),
+                    linesFrom(channel, offset, after, maxBytes));
+        }
+    }
+
+    /**
+     * Start and time of the first event that starts at or after the position and before the limit.
+     *
+     * @return {@code [offset, epochMillis]}, or {@code null} if there is none
+     */
+    private static long[] nextEvent(FileChannel channel, long position, long limit, ZoneId zone) throws IOException {
+        long lineStart = position == 0 || LogFileTail.readByte(channel, position - 1) == '\n'
+                ? position
+                : nextLineStart(channel, position, limit);
+        ByteBuffer prefix = ByteBuffer.allocate(PREFIX_LENGTH);
+        while (lineStart >= 0 && lineStart < limit) {
+            prefix.clear();
+            int read = channel.read(prefix, lineStart);
+            if (read > 0) {
+                long timestamp = LogFileLayout.timestamp(
+                        new String(prefix.array(), 0, read, StandardCharsets.ISO_8859_1), zone);
+                if (timestamp >= 0) {
+                    return new long[]{lineStart, timestamp};
+                }
+            }
+            // A continuation line, e.g. of a stack trace
+            lineStart = nextLineStart(channel, lineStart, limit);
+        }
+        return null;
+    }
+
+    /**
+     * Offset after the next line break at or after the position, or -1 if there is none before the limit.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long limit) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        while (position < limit) {
+            block.clear().limit((int) Math.min(BLOCK_SIZE, limit - position));
+            int read = channel.read(block, position);
+            if (read <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (block.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    /**
+     * Complete lines from the offset on, without line terminators.
+     */
+    private static List<String> linesFrom(FileChannel channel, long offset, int lines, long maxBytes)
+            throws IOException {
+        List<String> result = new ArrayList<>();
+        long limit = Math.min(channel.size(), offset + maxBytes);
+        long lineStart = offset;
+        while (result.size() < lines) {
+            long next = nextLineStart(channel, lineStart, limit);
+            if (next < 0) {
+                break;
+            }
+            ByteBuffer content = ByteBuffer.allocate((int) (next - lineStart - 1));
+            LogFileTail.readFully(channel, content, lineStart);
+            int length = content.limit();
+            // Lines written on Windows end with CRLF
+            if (length > 0 && content.get(length - 1) == '\r') {
+                length--;
+            }
+            result.add(new String(content.array(), 0, length, StandardCharsets.UTF_8));
+            lineStart = next;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,130 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the last lines of a log file by seeking backwards from its end.
+ * <p>
+ * The file is scanned in blocks from the end until enough line breaks are found, so the cost
+ * depends on the size of the returned lines, not on the size of the file. Line breaks are found
+ * on the raw bytes, which is safe for UTF-8 because a newline byte never occurs inside a
+ * multi-byte character.
+ */
+public final class LogFileTail {
+
+    private static final int BLOCK_SIZE = 8192;
+
+    private LogFileTail() {
+    }
+
+    /**
+     * Last lines of the file, oldest first, without line terminators.
+     *
+     * @param path     log file
+     * @param lines    maximum number of lines to return
+     * @param maxBytes maximum number of bytes read from the end of the file; a line that does not
+     *                 fit completely within them is left out
+     */
+    public static List<String> tail(Path path, int lines, long maxBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return linesBefore(channel, channel.size(), lines, maxBytes);
+        }
+    }
+
+    /**
+     * Lines that end before the given offset, oldest first, without line terminators.
+     *
+     * @param channel  log file
+     * @param offset   end of the last line to return, e.g. the start of the following line or the file size
+     * @param lines    maximum number of lines to return
+     * @param maxBytes maximum number of bytes read before the offset; a line that does not fit
+     *                 completely within them is left out
+     */
+    static List<String> linesBefore(FileChannel channel, long offset, int lines, long maxBytes) throws IOException {
+        if (lines <= 0 || offset == 0) {
+            return List.of();
+        }
+
+        // A newline that terminates the last line does not start another one
+        long end = offset;
+        if (readByte(channel, offset - 1) == '\n') {
+            end--;
+        }
+        long limit = Math.max(0, offset - maxBytes);
+        if (limit > end) {
+            return List.of();
+        }
+
+        long start = -1;
+        int found = 0;
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        long blockEnd = end;
+        scan:
+        while (blockEnd > limit) {
+            long blockStart = Math.max(limit, blockEnd - BLOCK_SIZE);
+            block.clear().limit((int) (blockEnd - blockStart));
+            readFully(channel, block, blockStart);
+            for (int i = block.limit() - 1; i >= 0; i--) {
+                if (block.get(i) == '\n') {
+                    start = blockStart + i + 1;
+                    if (++found == lines) {
+                        break scan;
+                    }
+                }
+            }
+            blockEnd = blockStart;
+        }
+        if (found < lines) {
+            if (limit == 0 || readByte(channel, limit - 1) == '\n') {
+                // The scanned range begins with a whole line
+                start = limit;
+            } else if (start < 0) {
+                // Not even the last line fits within maxBytes
+                return List.of();
+            }
+        }
+
+        ByteBuffer content = ByteBuffer.allocate((int) (end - start));
+        readFully(channel, content, start);
+        return split(new String(content.array(), StandardCharsets.UTF_8));
+    }
+
+    private static List<String> split(String text) {
+        List<String> result = new ArrayList<>();
+        int from = 0;
+        while (from <= text.length()) {
+            int newline = text.indexOf('\n', from);
+            int to = newline >= 0 ? newline : text.length();
+            // Lines written on Windows end with CRLF
+            int lineEnd = to > from && text.charAt(to - 1) == '\r' ? to - 1 : to;
+            result.add(text.substring(from, lineEnd));
+            if (newline < 0) {
+                break;
+            }
+            from = newline + 1;
+        }
+        return result;
+    }
+
+    static byte readByte(FileChannel channel, long position) throws IOException {
+        ByteBuffer single = ByteBuffer.allocate(1);
+        readFully(channel, single, position);
+        return single.get(0);
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Log file was truncated while reading");
+            }
+        }
+    }
+}
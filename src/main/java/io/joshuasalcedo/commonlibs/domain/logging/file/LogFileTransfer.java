@@ -0,0 +1,46 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Copies raw bytes of a log file to a response with {@link FileChannel#transferTo}, which lets the
+ * JDK move them through its own (direct) buffers instead of a large heap buffer per request.
+ * <p>
+ * Bytes are passed on as they are, without decoding lines or characters, and the output is not
+ * flushed while copying. Exactly the requested number of bytes is sent even if the file grows
+ * meanwhile, so it always matches the announced {@code Content-Length}.
+ */
+public final class LogFileTransfer {
+
+    private LogFileTransfer() {
+    }
+
+    /**
+     * @param path   log file
+     * @param start  first byte to copy
+     * @param length number of bytes to copy
+     * @throws IOException if the file became shorter than the requested range, e.g. when rolled over
+     */
+    public static void copy(Path path, long start, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Not closed, as that would close the response
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent == 0 && position >= channel.size()) {
+                    throw new IOException("Log file was truncated while sending it");
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+import java.util.List;
+
+/**
+ * Logback appender that keeps recent logs in memory and wakes the live log dispatcher.
+ * The logging thread never writes to a client connection, so every live log transport
+ * (servlet SSE, reactive SSE, binary WebSocket and STOMP destinations) is fed from this single
+ * appender: events are compacted, buffered and encoded once, whichever transports are enabled.
+ * When {@link LiveLogStats} are kept, the appender also counts every event into them.
+ */
+public class LiveLogAppender extends AppenderBase<ILoggingEvent> {
+
+    private final LogEventRingBuffer<LiveLogEvent> logEvents;
+    private final LiveLogDispatcher dispatcher;
+    private final LiveLogCompactor compactor;
+    private final LiveLogStats stats;
+
+    public LiveLogAppender(LogEventRingBuffer<LiveLogEvent> logEvents, LiveLogDispatcher dispatcher,
+                           LiveLogCompactor compactor) {
+        this(logEvents, dispatcher, compactor, null);
+    }
+
+    /**
+     * @param stats rolling statistics to count events into, or {@code null}
+     */
+    public LiveLogAppender(LogEventRingBuffer<LiveLogEvent> logEvents, LiveLogDispatcher dispatcher,
+                           LiveLogCompactor compactor, LiveLogStats stats) {
+        this.logEvents = logEvents;
+        this.dispatcher = dispatcher;
+        this.compactor = compactor;
+        this.stats = stats;
+    }
+
+    @Override
+    public void start() {
+        dispatcher.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        dispatcher.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Copy what clients need now; the Logback event and its arguments are not retained
+        long sequence = logEvents.publish(seq -> compactor.compact(seq, event));
+        dispatcher.signal(sequence);
+        if (stats != null) {
+            stats.record(event.getTimeStamp(), event.getLevel(), event.getLoggerName());
+        }
+    }
+
+    /**
+     * First sequence to send to a new subscriber. A Last-Event-ID from this JVM resumes right after
+     * that event; an unknown one (e.g. issued before a restart) falls back to the whole history.
+     *
+     * @param replayEnd     first sequence that is not history, i.e. {@link LogEventRingBuffer#nextSequence()}
+     * @param lastEventId   ID of the last event the client received, or {@code null}
+     * @param replayHistory whether a new client without a Last-Event-ID gets the buffered history
+     */
+    public long replayStart(long replayEnd, Long lastEventId, boolean replayHistory) {
+        if (lastEventId != null && lastEventId >= 0 && lastEventId < replayEnd) {
+            return Math.max(lastEventId + 1, logEvents.oldestSequence());
+        }
+        if (lastEventId != null || replayHistory) {
+            return logEvents.oldestSequence();
+        }
+        return replayEnd;
+    }
+
+    public LogEventRingBuffer<LiveLogEvent> getLogEvents() {
+        return logEvents;
+    }
+
+    public LiveLogDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public LiveLogStats getStats() {
+        return stats;
+    }
+
+    public List<LiveLogEvent> getRecentLogs() {
+        return logEvents.snapshot();
+    }
+}
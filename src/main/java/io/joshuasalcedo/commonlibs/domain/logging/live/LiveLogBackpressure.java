@@ -0,0 +1,94 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backpressure settings and counters shared by live log subscribers.
+ * <p>
+ * Besides the per-subscriber lag limit, all subscribers draw from one global byte budget
+ * for events that have been handed to a transport but not yet written, so that stuck
+ * clients cannot pin an unbounded amount of heap.
+ */
+public class LiveLogBackpressure {
+
+    private final SlowConsumerPolicy policy;
+    private final long maxLag;
+    private final int sampleRate;
+    private final long maxBufferedBytes;
+
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+
+    /**
+     * @param policy           what to do with a subscriber that lags too far behind
+     * @param maxLag           number of pending events after which the policy applies
+     * @param sampleRate       with {@link SlowConsumerPolicy#SAMPLE}, deliver one in this many events
+     * @param maxBufferedBytes global budget for events in flight across all subscribers
+     */
+    public LiveLogBackpressure(SlowConsumerPolicy policy, long maxLag, int sampleRate, long maxBufferedBytes) {
+        this.policy = policy;
+        this.maxLag = Math.max(1, maxLag);
+        this.sampleRate = Math.max(1, sampleRate);
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    public SlowConsumerPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getMaxBufferedBytes() {
+        return maxBufferedBytes;
+    }
+
+    /**
+     * Reserve budget for events about to be handed to a transport.
+     *
+     * @return {@code false} if the global budget would be exceeded
+     */
+    public boolean tryReserve(long bytes) {
+        long current;
+        do {
+            current = bufferedBytes.get();
+            // A batch larger than the whole budget may still pass when nothing else is in flight
+            if (current > 0 && current + bytes > maxBufferedBytes) {
+                return false;
+            }
+        } while (!bufferedBytes.compareAndSet(current, current + bytes));
+        return true;
+    }
+
+    public void release(long bytes) {
+        bufferedBytes.addAndGet(-bytes);
+    }
+
+    public void recordDropped(long events) {
+        if (events > 0) {
+            droppedEvents.addAndGet(events);
+        }
+    }
+
+    public void recordDisconnect() {
+        disconnects.incrementAndGet();
+    }
+
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getDisconnects() {
+        return disconnects.get();
+    }
+}
@@ -0,0 +1,122 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes batches of live log events into compact CBOR frames for one binary WebSocket session.
+ * <p>
+ * A frame is the array {@code [base, strings, events]}. Levels, thread names, logger names and
+ * stack frames are sent only once per session: {@code strings} holds those the session has not
+ * received yet, which the client appends to its table at index {@code base}. A {@code base} of 0
+ * starts a new table; this happens whenever the table reaches its maximum size.
+ * <p>
+ * Each event is the array {@code [id, timestamp, level, thread, logger, message]}, with table
+ * indexes for level, thread and logger, followed by {@code exception} and an array of stack frame
+ * indexes if it was logged with an exception. The {@code id} and the epoch millisecond
+ * {@code timestamp} of every event but the first are deltas to the previous event of the frame.
+ * <p>
+ * An encoder holds the table of its session, so it must only be used by one thread at a time.
+ */
+public class LiveLogCborEncoder {
+
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+
+    private final int maxStrings;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /**
+     * @param maxStrings number of strings after which the session table is started over
+     */
+    public LiveLogCborEncoder(int maxStrings) {
+        this.maxStrings = maxStrings;
+    }
+
+    /**
+     * CBOR frame holding the given events.
+     */
+    public byte[] frame(List<LiveLogEvent> logEvents) {
+        if (indexes.size() >= maxStrings) {
+            indexes.clear();
+        }
+        int base = indexes.size();
+        List<String> added = new ArrayList<>();
+        int[][] references = new int[logEvents.size()][];
+        for (int i = 0; i < references.length; i++) {
+            references[i] = references(logEvents.get(i), added);
+        }
+
+        ByteArrayBuilder out = new ByteArrayBuilder(logEvents.size() * 96);
+        try (JsonGenerator generator = CBOR_FACTORY.createGenerator(out)) {
+            generator.writeStartArray(null, 3);
+            generator.writeNumber(base);
+            generator.writeStartArray(null, added.size());
+            for (String value : added) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+
+            generator.writeStartArray(null, logEvents.size());
+            long previousId = 0;
+            long previousTimestamp = 0;
+            for (int i = 0; i < references.length; i++) {
+                LiveLogEvent event = logEvents.get(i);
+                int[] refs = references[i];
+                LiveLogThrowable throwable = event.getThrowable();
+                generator.writeStartArray(null, throwable != null ? 8 : 6);
+                generator.writeNumber(event.getSequence() - previousId);
+                generator.writeNumber(event.getTimestamp() - previousTimestamp);
+                generator.writeNumber(refs[0]);
+                generator.writeNumber(refs[1]);
+                generator.writeNumber(refs[2]);
+                generator.writeString(event.getMessage());
+                if (throwable != null) {
+                    generator.writeString(throwable.message());
+                    generator.writeArray(refs, 3, refs.length - 3);
+                }
+                generator.writeEndArray();
+                previousId = event.getSequence();
+                previousTimestamp = event.getTimestamp();
+            }
+            generator.writeEndArray();
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Table indexes of the level, thread, logger and stack frames of the event.
+     */
+    private int[] references(LiveLogEvent event, List<String> added) {
+        LiveLogThrowable throwable = event.getThrowable();
+        List<String> stackTrace = throwable != null ? throwable.stackTrace() : List.of();
+        int[] refs = new int[3 + stackTrace.size()];
+        refs[0] = index(event.getLevel().toString(), added);
+        refs[1] = index(event.getThreadName(), added);
+        refs[2] = index(event.getLoggerName(), added);
+        for (int i = 0; i < stackTrace.size(); i++) {
+            refs[3 + i] = index(stackTrace.get(i), added);
+        }
+        return refs;
+    }
+
+    private int index(String value, List<String> added) {
+        Integer index = indexes.get(value);
+        if (index == null) {
+            index = indexes.size();
+            indexes.put(value, index);
+            added.add(value);
+        }
+        return index;
+    }
+}
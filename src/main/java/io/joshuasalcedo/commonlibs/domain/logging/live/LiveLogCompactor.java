@@ -0,0 +1,93 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts Logback events into compact {@link LiveLogEvent}s on the logging thread, so the
+ * history never retains argument arrays, throwable proxies, MDC maps or caller data.
+ * <p>
+ * Logger and thread names are interned, and identical exceptions logged repeatedly share a
+ * single {@link LiveLogThrowable}.
+ */
+public class LiveLogCompactor {
+
+    private static final int MAX_INTERNED_NAMES = 4096;
+    private static final int MAX_INTERNED_THROWABLES = 256;
+
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final Map<LiveLogThrowable, LiveLogThrowable> throwables = new ConcurrentHashMap<>();
+    private final boolean includeExceptions;
+    private final boolean includeStackTraces;
+    private final OffHeapLogStore offHeap;
+
+    /**
+     * @param includeExceptions  whether to keep the exception message
+     * @param includeStackTraces whether to keep the stack frames of the exception
+     * @param offHeap            store for message text and encodings, or {@code null} to keep them on the heap
+     */
+    public LiveLogCompactor(boolean includeExceptions, boolean includeStackTraces, OffHeapLogStore offHeap) {
+        this.includeExceptions = includeExceptions;
+        this.includeStackTraces = includeStackTraces;
+        this.offHeap = offHeap;
+    }
+
+    public LiveLogEvent compact(long sequence, ILoggingEvent event) {
+        return new LiveLogEvent(sequence,
+                event.getTimeStamp(),
+                event.getLevel(),
+                intern(event.getThreadName()),
+                intern(event.getLoggerName()),
+                event.getFormattedMessage(),
+                compact(event.getThrowableProxy()),
+                offHeap);
+    }
+
+    private LiveLogThrowable compact(IThrowableProxy throwable) {
+        if (throwable == null || !includeExceptions) {
+            return null;
+        }
+        List<String> stackTrace = List.of();
+        if (includeStackTraces) {
+            StackTraceElementProxy[] elements = throwable.getStackTraceElementProxyArray();
+            List<String> frames = new ArrayList<>(elements.length);
+            for (StackTraceElementProxy element : elements) {
+                frames.add(element.getStackTraceElement().toString());
+            }
+            stackTrace = List.copyOf(frames);
+        }
+        LiveLogThrowable compact = new LiveLogThrowable(throwable.getMessage(), stackTrace);
+
+        LiveLogThrowable shared = throwables.get(compact);
+        if (shared != null) {
+            return shared;
+        }
+        if (throwables.size() >= MAX_INTERNED_THROWABLES) {
+            throwables.clear();
+        }
+        shared = throwables.putIfAbsent(compact, compact);
+        return shared != null ? shared : compact;
+    }
+
+    private String intern(String name) {
+        if (name == null) {
+            return "";
+        }
+        String shared = names.get(name);
+        if (shared != null) {
+            return shared;
+        }
+        // Names are bounded in practice; stop interning rather than grow without limit
+        if (names.size() >= MAX_INTERNED_NAMES) {
+            return name;
+        }
+        shared = names.putIfAbsent(name, name);
+        return shared != null ? shared : name;
+    }
+}
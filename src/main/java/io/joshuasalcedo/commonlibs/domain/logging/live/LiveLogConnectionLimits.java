@@ -0,0 +1,13 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+/**
+ * Limits that keep idle or abandoned live log connections from accumulating.
+ *
+ * @param heartbeatIntervalMs send a heartbeat to a subscriber that has received nothing for this long; 0 disables
+ * @param maxLifetimeMs       close a subscription after this long so the client reconnects; 0 is unlimited
+ * @param maxSubscribers      maximum number of concurrent subscribers; 0 is unlimited
+ */
+public record LiveLogConnectionLimits(long heartbeatIntervalMs, long maxLifetimeMs, int maxSubscribers) {
+
+    public static final LiveLogConnectionLimits UNLIMITED = new LiveLogConnectionLimits(0, 0, 0);
+}
@@ -0,0 +1,193 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import ch.qos.logback.classic.Level;
+import io.joshuasalcedo.commonlibs.domain.BadRequestException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live log destinations that messaging clients are currently subscribed to.
+ * <p>
+ * A destination below the base encodes its filter as path segments:
+ * {@code <base>} receives everything, {@code <base>/WARN} events at WARN or above and
+ * {@code <base>/WARN/com.acme} only those of loggers starting with {@code com.acme}
+ * ({@code ALL} as level matches every level). While at least one subscription exists, a
+ * destination is a subscriber of the {@link LiveLogAppender live log hub}, so it is fed from the
+ * same buffer, encoding and backpressure as the other transports. Nothing is filtered or encoded
+ * for destinations nobody reads, and sessions with the same filter share one message.
+ */
+public class LiveLogDestinations {
+
+    /**
+     * Sends one message holding a batch of events to a messaging destination
+     */
+    @FunctionalInterface
+    public interface Publisher {
+        void publish(String destination, List<LiveLogEvent> events);
+    }
+
+    private final String base;
+    private final Level minLevel;
+    private final int maxEventsPerMessage;
+    private final LiveLogAppender hub;
+    private final Publisher publisher;
+    private final Map<String, Destination> destinations = new HashMap<>();
+    private final Map<String, Map<String, String>> sessions = new HashMap<>();
+
+    /**
+     * @param base                destination that receives all events, e.g. {@code /topic/logs}
+     * @param minLevel            minimum level of the published events, whatever the destination asks for
+     * @param maxEventsPerMessage maximum number of events in one message
+     * @param hub                 appender whose buffer the destinations read
+     * @param publisher           sends the messages
+     */
+    public LiveLogDestinations(String base, Level minLevel, int maxEventsPerMessage,
+                               LiveLogAppender hub, Publisher publisher) {
+        this.base = base;
+        this.minLevel = minLevel;
+        this.maxEventsPerMessage = Math.max(1, maxEventsPerMessage);
+        this.hub = hub;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Register a subscription. Destinations outside the base or with an invalid filter are ignored.
+     */
+    public synchronized void subscribe(String sessionId, String subscriptionId, String destination) {
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        LiveLogFilter filter = parse(destination);
+        if (filter == null) {
+            return;
+        }
+        String previous = sessions.computeIfAbsent(sessionId, id -> new HashMap<>()).put(subscriptionId, destination);
+        if (previous != null) {
+            release(previous);
+        }
+        Destination entry = destinations.get(destination);
+        if (entry == null) {
+            // Only events logged from now on; a broker subscription has no history to resume
+            entry = new Destination(destination, filter, hub.getLogEvents().nextSequence());
+            destinations.put(destination, entry);
+            hub.getDispatcher().subscribe(entry);
+        }
+        entry.subscriptions++;
+    }
+
+    public synchronized void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String destination = subscriptions.remove(subscriptionId);
+        if (subscriptions.isEmpty()) {
+            sessions.remove(sessionId);
+        }
+        if (destination != null) {
+            release(destination);
+        }
+    }
+
+    /**
+     * Remove all subscriptions of a closed session.
+     */
+    public synchronized void disconnect(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    /**
+     * Names of the destinations with at least one subscription.
+     */
+    public synchronized List<String> getActive() {
+        return List.copyOf(destinations.keySet());
+    }
+
+    private void release(String destination) {
+        Destination entry = destinations.get(destination);
+        if (entry != null && --entry.subscriptions <= 0) {
+            destinations.remove(destination);
+            hub.getDispatcher().unsubscribe(entry);
+        }
+    }
+
+    /**
+     * Filter encoded by the destination, or {@code null} if it is not a live log destination.
+     */
+    private LiveLogFilter parse(String destination) {
+        String[] segments;
+        if (destination.equals(base)) {
+            segments = new String[0];
+        } else if (destination.startsWith(base + "/")) {
+            segments = destination.substring(base.length() + 1).split("/", 2);
+            if (segments[0].isEmpty()) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+
+        Level level = minLevel;
+        if (segments.length > 0 && !"ALL".equalsIgnoreCase(segments[0])) {
+            Level requested = Level.toLevel(segments[0], null);
+            if (requested == null) {
+                return null;
+            }
+            if (requested.isGreaterOrEqual(level)) {
+                level = requested;
+            }
+        }
+        List<String> loggers = segments.length > 1 ? List.of(segments[1]) : null;
+        try {
+            return LiveLogFilter.of(level.toString(), loggers, null, null, null, null);
+        } catch (BadRequestException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A subscribed destination, reading the hub from its own cursor with the filter it stands for
+     */
+    private final class Destination extends LiveLogSubscriber {
+        private final String name;
+        private int subscriptions;
+
+        Destination(String name, LiveLogFilter filter, long cursor) {
+            super(cursor, filter);
+            this.name = name;
+        }
+
+        @Override
+        protected void deliver(List<LiveLogEvent> events) {
+            for (int from = 0; from < events.size(); from += maxEventsPerMessage) {
+                List<LiveLogEvent> message = events.subList(from, Math.min(events.size(), from + maxEventsPerMessage));
+                try {
+                    publisher.publish(name, message);
+                } catch (RuntimeException e) {
+                    // Broker channel saturated or unavailable; the destination keeps its subscriptions
+                    hub.getDispatcher().getBackpressure().recordDropped(message.size());
+                }
+            }
+        }
+
+        @Override
+        protected void heartbeat() {
+            // Not a connection; the broker keeps its sessions alive itself
+        }
+
+        @Override
+        protected void close(Throwable cause) {
+            // Nothing to release; subscriptions end with the broker sessions
+        }
+
+        @Override
+        protected boolean isConnection() {
+            return false;
+        }
+    }
+}
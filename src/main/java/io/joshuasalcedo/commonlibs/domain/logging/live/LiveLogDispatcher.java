@@ -0,0 +1,397 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fans log events out of a shared {@link LogEventRingBuffer} to live log subscribers.
+ * <p>
+ * Logging threads only append to the ring buffer and {@link #signal()} the dispatcher.
+ * A single dispatcher thread then hands every subscriber that is behind to a sender pool,
+ * where it is drained from its own cursor. A slow client therefore only delays itself.
+ * <p>
+ * With a flush interval, a subscriber is only drained once it is {@code maxBatchSize} events
+ * behind or its last flush is older than the interval, whichever comes first.
+ * <p>
+ * Subscribers that fall behind are handled according to the {@link LiveLogBackpressure} policy.
+ * A subscriber without {@link LiveLogSubscriber#getDemand() demand} is not drained until it
+ * asks for more and {@link #signal()}s the dispatcher.
+ * <p>
+ * For {@link LiveLogSubscriber#isConnection() connections}, the dispatcher also enforces the
+ * {@link LiveLogConnectionLimits}: idle subscribers get a heartbeat, which is how dead
+ * connections are detected, and subscriptions older than the maximum lifetime are closed
+ * so the client reconnects.
+ */
+public class LiveLogDispatcher {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LogEventRingBuffer<LiveLogEvent> buffer;
+    private final List<LiveLogSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final LiveLogBackpressure backpressure;
+    private final LiveLogConnectionLimits limits;
+    private final long heartbeatNanos;
+    private final long maxLifetimeNanos;
+    private final AtomicLong reapedConnections = new AtomicLong();
+    private final AtomicLong rejectedConnections = new AtomicLong();
+    private final ExecutorService senders;
+    private final Thread dispatcherThread;
+    private volatile boolean running;
+
+    /**
+     * Set while the dispatcher sleeps without any subscriber having pending events
+     */
+    private volatile boolean idle;
+
+    /**
+     * @param buffer          shared ring buffer to read from
+     * @param name            prefix for the dispatcher and sender thread names
+     * @param maxBatchSize    maximum number of events handed to a subscriber at once
+     * @param flushIntervalMs how long events may wait to fill a batch; 0 delivers immediately
+     * @param backpressure    slow-consumer policy and global byte budget
+     * @param limits          heartbeat interval, maximum lifetime and maximum number of subscribers
+     */
+    public LiveLogDispatcher(LogEventRingBuffer<LiveLogEvent> buffer, String name,
+                             int maxBatchSize, long flushIntervalMs, LiveLogBackpressure backpressure,
+                             LiveLogConnectionLimits limits) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+        }
+        this.buffer = buffer;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, flushIntervalMs));
+        this.backpressure = backpressure;
+        this.limits = limits;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, limits.heartbeatIntervalMs()));
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, limits.maxLifetimeMs()));
+        this.senders = Executors.newCachedThreadPool(daemonThreadFactory(name + "-sender-"));
+        this.dispatcherThread = new Thread(this::dispatchLoop, name + "-dispatcher");
+        this.dispatcherThread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        dispatcherThread.start();
+    }
+
+    /**
+     * Stop dispatching and close all subscribers.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(dispatcherThread);
+        senders.shutdownNow();
+        for (LiveLogSubscriber subscriber : subscribers) {
+            subscriber.close(null);
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * Wake the dispatcher after new events were appended. Never blocks.
+     */
+    public void signal() {
+        LockSupport.unpark(dispatcherThread);
+    }
+
+    /**
+     * Wake the dispatcher after the event with the given sequence was appended.
+     * When batching, this only happens once per batch, or for the first event after the
+     * dispatcher went idle so that its flush interval starts; partially filled batches are
+     * then picked up when their flush interval expires.
+     */
+    public void signal(long sequence) {
+        if (flushIntervalNanos == 0 || (sequence + 1) % maxBatchSize == 0) {
+            signal();
+        } else if (idle) {
+            idle = false;
+            signal();
+        }
+    }
+
+    /**
+     * Start delivering events to the subscriber, beginning at its cursor. History before its
+     * replay end is sent in chunks like any backlog, followed seamlessly by live events.
+     *
+     * @return {@code false} if the subscriber is a connection and the maximum number of subscribers is reached
+     */
+    public synchronized boolean subscribe(LiveLogSubscriber subscriber) {
+        if (subscriber.isConnection() && limits.maxSubscribers() > 0 && subscribers.size() >= limits.maxSubscribers()) {
+            rejectedConnections.incrementAndGet();
+            return false;
+        }
+        long now = System.nanoTime();
+        subscriber.setConnectedNanos(now);
+        subscriber.setLastFlushNanos(now);
+        subscriber.setLastWriteNanos(now);
+        subscribers.add(subscriber);
+        signal();
+        return true;
+    }
+
+    public void unsubscribe(LiveLogSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Number of events the furthest-behind subscriber has not received yet.
+     */
+    public long getMaxLag() {
+        long upper = buffer.nextSequence();
+        long maxLag = 0;
+        for (LiveLogSubscriber subscriber : subscribers) {
+            maxLag = Math.max(maxLag, upper - subscriber.getCursor());
+        }
+        return maxLag;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public LiveLogBackpressure getBackpressure() {
+        return backpressure;
+    }
+
+    /**
+     * Subscriptions closed by the dispatcher because the connection was dead or too old.
+     */
+    public long getReapedConnections() {
+        return reapedConnections.get();
+    }
+
+    /**
+     * Subscriptions refused because the maximum number of subscribers was reached.
+     */
+    public long getRejectedConnections() {
+        return rejectedConnections.get();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            long upper = buffer.nextSequence();
+            long now = System.nanoTime();
+            long parkNanos = IDLE_PARK_NANOS;
+            boolean pendingEvents = false;
+            boolean waiting = false;
+            for (LiveLogSubscriber subscriber : subscribers) {
+                boolean connection = subscriber.isConnection();
+                if (connection && maxLifetimeNanos > 0 && now - subscriber.getConnectedNanos() >= maxLifetimeNanos) {
+                    schedule(subscriber, () -> expire(subscriber));
+                    continue;
+                }
+                long pending = upper - subscriber.getCursor();
+                if (pending <= 0 || subscriber.getDemand() <= 0) {
+                    waiting |= subscriber.getDemand() > 0;
+                    if (connection && heartbeatNanos > 0) {
+                        long idle = now - subscriber.getLastWriteNanos();
+                        if (idle >= heartbeatNanos) {
+                            schedule(subscriber, () -> heartbeat(subscriber));
+                        } else {
+                            parkNanos = Math.min(parkNanos, heartbeatNanos - idle);
+                        }
+                    }
+                    continue;
+                }
+                pendingEvents = true;
+                long waited = now - subscriber.getLastFlushNanos();
+                if (pending < maxBatchSize && waited < flushIntervalNanos) {
+                    // Not due yet; wake up again when its flush interval expires
+                    parkNanos = Math.min(parkNanos, flushIntervalNanos - waited);
+                    continue;
+                }
+                schedule(subscriber, () -> drain(subscriber));
+            }
+            if (waiting && !pendingEvents) {
+                idle = true;
+                if (buffer.nextSequence() != upper) {
+                    // Appended before the flag was visible to the logging thread
+                    idle = false;
+                    continue;
+                }
+            }
+            LockSupport.parkNanos(this, parkNanos);
+            idle = false;
+        }
+    }
+
+    /**
+     * Run a task for the subscriber on the sender pool, unless one is already running.
+     * The task must {@link LiveLogSubscriber#release() release} the subscriber when done.
+     */
+    private void schedule(LiveLogSubscriber subscriber, Runnable task) {
+        if (subscriber.trySchedule()) {
+            try {
+                senders.execute(task);
+            } catch (Exception e) {
+                // Sender pool is shutting down
+                subscriber.release();
+            }
+        }
+    }
+
+    private void heartbeat(LiveLogSubscriber subscriber) {
+        try {
+            subscriber.heartbeat();
+            subscriber.setLastWriteNanos(System.nanoTime());
+        } catch (Exception e) {
+            // Writing is the only way to notice a half-open connection
+            reap(subscriber, e);
+        } finally {
+            subscriber.release();
+        }
+    }
+
+    private void expire(LiveLogSubscriber subscriber) {
+        try {
+            reap(subscriber, null);
+        } finally {
+            subscriber.release();
+        }
+    }
+
+    private void drain(LiveLogSubscriber subscriber) {
+        try {
+            long upper = buffer.nextSequence();
+            long sequence = subscriber.getCursor();
+
+            // Events that were overwritten before this subscriber could read them are lost
+            long oldest = buffer.oldestSequence();
+            if (sequence < oldest) {
+                backpressure.recordDropped(oldest - sequence);
+                sequence = oldest;
+            }
+
+            // History replayed on connect is not lag; only live events count
+            boolean sampling = false;
+            long lag = upper - Math.max(sequence, subscriber.getReplayEnd());
+            if (lag > backpressure.getMaxLag()) {
+                SlowConsumerPolicy policy = backpressure.getPolicy();
+                if (policy == SlowConsumerPolicy.DISCONNECT && !subscriber.isConnection()) {
+                    policy = SlowConsumerPolicy.DROP_OLDEST;
+                }
+                switch (policy) {
+                    case DISCONNECT -> {
+                        disconnect(subscriber);
+                        return;
+                    }
+                    case DROP_OLDEST -> {
+                        long skipTo = upper - backpressure.getMaxLag();
+                        backpressure.recordDropped(skipTo - sequence);
+                        sequence = skipTo;
+                    }
+                    case SAMPLE -> sampling = true;
+                }
+            }
+
+            long demand = subscriber.getDemand();
+            List<LiveLogEvent> batch = new ArrayList<>();
+            for (; sequence < upper && demand > 0 && running; sequence++) {
+                LiveLogEvent event = buffer.get(sequence);
+                if (event == null) {
+                    if (sequence >= buffer.oldestSequence()) {
+                        // Claimed by a writer that has not stored it yet; resume from here next time
+                        break;
+                    }
+                    backpressure.recordDropped(1);
+                    continue;
+                }
+                // Filtered events are never encoded for this subscriber
+                if (!subscriber.accepts(event)) {
+                    continue;
+                }
+                if (sampling && sequence >= subscriber.getReplayEnd()
+                        && sequence % backpressure.getSampleRate() != 0) {
+                    backpressure.recordDropped(1);
+                    continue;
+                }
+                batch.add(event);
+                demand--;
+                if (batch.size() == maxBatchSize) {
+                    if (!deliver(subscriber, batch)) {
+                        return;
+                    }
+                    subscriber.setCursor(sequence + 1);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty() && !deliver(subscriber, batch)) {
+                return;
+            }
+            subscriber.setCursor(sequence);
+            subscriber.setLastFlushNanos(System.nanoTime());
+        } catch (Exception e) {
+            reap(subscriber, e);
+        } finally {
+            subscriber.release();
+            // Events published while this drain was running would otherwise wait for the next wake-up
+            if (subscriber.getCursor() < buffer.nextSequence()) {
+                signal();
+            }
+        }
+    }
+
+    /**
+     * Hand a batch to the subscriber within the global byte budget.
+     * When the budget is exhausted the batch is dropped, or the subscriber disconnected.
+     *
+     * @return {@code false} if the subscriber was disconnected
+     */
+    private boolean deliver(LiveLogSubscriber subscriber, List<LiveLogEvent> batch) throws Exception {
+        long bytes = 0;
+        for (LiveLogEvent event : batch) {
+            bytes += event.estimatedSize();
+        }
+        if (!backpressure.tryReserve(bytes)) {
+            if (backpressure.getPolicy() == SlowConsumerPolicy.DISCONNECT && subscriber.isConnection()) {
+                disconnect(subscriber);
+                return false;
+            }
+            backpressure.recordDropped(batch.size());
+            return true;
+        }
+        try {
+            subscriber.deliver(batch);
+            subscriber.setLastWriteNanos(System.nanoTime());
+        } finally {
+            backpressure.release(bytes);
+        }
+        return true;
+    }
+
+    private void reap(LiveLogSubscriber subscriber, Throwable cause) {
+        if (subscribers.remove(subscriber)) {
+            reapedConnections.incrementAndGet();
+            subscriber.close(cause);
+        }
+    }
+
+    private void disconnect(LiveLogSubscriber subscriber) {
+        subscribers.remove(subscriber);
+        backpressure.recordDisconnect();
+        subscriber.close(null);
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
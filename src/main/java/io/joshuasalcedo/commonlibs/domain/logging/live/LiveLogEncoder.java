@@ -0,0 +1,281 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Encodes live log events into the JSON payload and SSE frame sent to clients.
+ * Each encoding is computed once per event and cached on the {@link LiveLogEvent},
+ * so the cost does not grow with the number of connected clients. Encodings kept off-heap
+ * are copied to the heap once per event for all clients it is sent to at about the same time,
+ * and batches are assembled from them directly.
+ */
+public class LiveLogEncoder {
+
+    // Events sent together to several clients share a slot, as their sequences differ by less than this
+    private static final int RECENT_COPIES = 256;
+
+    private final JsonFactory jsonFactory;
+    private final DateTimeFormatter formatter;
+    private final byte[] sseEventLines;
+    private final byte[] sseBatchLines;
+    private final AtomicReferenceArray<HeapCopy> recentJson = new AtomicReferenceArray<>(RECENT_COPIES);
+    private final AtomicReferenceArray<HeapCopy> recentFrames = new AtomicReferenceArray<>(RECENT_COPIES);
+    private volatile FormattedTimestamp lastTimestamp = new FormattedTimestamp(Long.MIN_VALUE, "");
+
+    public LiveLogEncoder(JsonFactory jsonFactory, String timestampFormat, String eventName) {
+        this.jsonFactory = jsonFactory;
+        this.formatter = DateTimeFormatter.ofPattern(timestampFormat).withZone(ZoneId.systemDefault());
+        this.sseEventLines = ("\nevent:" + eventName + "\ndata:").getBytes(StandardCharsets.UTF_8);
+        this.sseBatchLines = ("\nevent:" + eventName + "-batch\ndata:[").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * UTF-8 JSON representation of the event.
+     */
+    public byte[] json(LiveLogEvent logEvent) {
+        if (logEvent.isOffHeap()) {
+            return heapCopy(recentJson, logEvent, payload(logEvent));
+        }
+        byte[] json = logEvent.getJson();
+        if (json == null) {
+            synchronized (logEvent) {
+                json = logEvent.getJson();
+                if (json == null) {
+                    json = writeJson(logEvent);
+                    logEvent.setJson(json);
+                }
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Complete SSE frame ({@code id:}, {@code event:} and {@code data:} lines plus the terminating blank line).
+     * The event ID is the ring buffer sequence, so clients can resume with {@code Last-Event-ID}.
+     */
+    public byte[] sseFrame(LiveLogEvent logEvent) {
+        if (logEvent.isOffHeap()) {
+            ByteBuffer frame = logEvent.getOffHeapSseFrame();
+            if (frame == null) {
+                frame = offHeapSseFrame(logEvent);
+            }
+            return heapCopy(recentFrames, logEvent, frame);
+        }
+        byte[] frame = logEvent.getSseFrame();
+        if (frame == null) {
+            ByteBuffer json = payload(logEvent);
+            synchronized (logEvent) {
+                frame = logEvent.getSseFrame();
+                if (frame == null) {
+                    frame = writeSseFrame(logEvent, json);
+                    logEvent.setSseFrame(frame);
+                }
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * SSE frame holding the given events as one JSON array.
+     * The frame carries the ID of the last event, so a client resumes after the whole batch.
+     */
+    public byte[] sseBatchFrame(List<LiveLogEvent> logEvents) {
+        LiveLogEvent last = logEvents.get(logEvents.size() - 1);
+        byte[] id = ("id:" + last.getSequence()).getBytes(StandardCharsets.US_ASCII);
+
+        // Separating commas, the closing bracket and the blank line that ends the frame
+        int length = id.length + sseBatchLines.length + logEvents.size() + 2;
+        ByteBuffer[] payloads = payloads(logEvents);
+        for (ByteBuffer payload : payloads) {
+            length += payload.capacity();
+        }
+
+        byte[] frame = new byte[length];
+        System.arraycopy(id, 0, frame, 0, id.length);
+        int position = id.length;
+        System.arraycopy(sseBatchLines, 0, frame, position, sseBatchLines.length);
+        position = writeArrayElements(payloads, frame, position + sseBatchLines.length);
+        frame[position++] = ']';
+        frame[position++] = '\n';
+        frame[position] = '\n';
+        return frame;
+    }
+
+    /**
+     * UTF-8 JSON array of the given events, built from their cached JSON payloads.
+     */
+    public byte[] jsonArray(List<LiveLogEvent> logEvents) {
+        // Brackets and separating commas
+        int length = Math.max(logEvents.size() - 1, 0) + 2;
+        ByteBuffer[] payloads = payloads(logEvents);
+        for (ByteBuffer payload : payloads) {
+            length += payload.capacity();
+        }
+
+        byte[] json = new byte[length];
+        json[0] = '[';
+        int position = writeArrayElements(payloads, json, 1);
+        json[position] = ']';
+        return json;
+    }
+
+    /**
+     * UTF-8 JSON object describing a search result, with the matching events under {@code events}.
+     */
+    public byte[] searchResult(LiveLogSearchResult result) {
+        // Only numbers and booleans precede the events, whose cached payloads are copied as they are
+        byte[] header = ("{\"count\":" + result.events().size()
+                + ",\"truncated\":" + result.truncated()
+                + ",\"searchedEvents\":" + result.indexedEvents()
+                + ",\"tookMicros\":" + result.tookNanos() / 1000
+                + ",\"events\":").getBytes(StandardCharsets.US_ASCII);
+        byte[] events = jsonArray(result.events());
+        byte[] json = new byte[header.length + events.length + 1];
+        System.arraycopy(header, 0, json, 0, header.length);
+        System.arraycopy(events, 0, json, header.length, events.length);
+        json[json.length - 1] = '}';
+        return json;
+    }
+
+    private byte[] writeJson(LiveLogEvent event) {
+        ByteArrayBuilder out = new ByteArrayBuilder(256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", event.getSequence());
+            generator.writeStringField("timestamp", formatTimestamp(event.getTimestamp()));
+            generator.writeStringField("level", event.getLevel().toString());
+            generator.writeStringField("thread", event.getThreadName());
+            generator.writeStringField("logger", event.getLoggerName());
+            generator.writeStringField("message", event.getMessage());
+
+            // Include exception info if it was kept when the event was compacted
+            LiveLogThrowable throwable = event.getThrowable();
+            if (throwable != null) {
+                generator.writeStringField("exception", throwable.message());
+                if (!throwable.stackTrace().isEmpty()) {
+                    generator.writeArrayFieldStart("stackTrace");
+                    for (String frame : throwable.stackTrace()) {
+                        generator.writeString(frame);
+                    }
+                    generator.writeEndArray();
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Events logged within the same millisecond share one formatted timestamp.
+     */
+    /**
+     * Cached JSON of the event where it is kept, encoding it first if needed.
+     */
+    private ByteBuffer payload(LiveLogEvent event) {
+        if (!event.isOffHeap()) {
+            return ByteBuffer.wrap(json(event));
+        }
+        ByteBuffer json = event.getOffHeapJson();
+        if (json == null) {
+            synchronized (event) {
+                json = event.getOffHeapJson();
+                if (json == null) {
+                    event.setJson(writeJson(event));
+                    json = event.getOffHeapJson();
+                }
+            }
+        }
+        return json;
+    }
+
+    private ByteBuffer[] payloads(List<LiveLogEvent> events) {
+        ByteBuffer[] payloads = new ByteBuffer[events.size()];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = payload(events.get(i));
+        }
+        return payloads;
+    }
+
+    private ByteBuffer offHeapSseFrame(LiveLogEvent event) {
+        ByteBuffer json = payload(event);
+        synchronized (event) {
+            ByteBuffer frame = event.getOffHeapSseFrame();
+            if (frame == null) {
+                event.setSseFrame(writeSseFrame(event, json));
+                frame = event.getOffHeapSseFrame();
+            }
+            return frame;
+        }
+    }
+
+    private byte[] writeSseFrame(LiveLogEvent event, ByteBuffer json) {
+        byte[] id = ("id:" + event.getSequence()).getBytes(StandardCharsets.US_ASCII);
+        byte[] frame = new byte[id.length + sseEventLines.length + json.capacity() + 2];
+        System.arraycopy(id, 0, frame, 0, id.length);
+        System.arraycopy(sseEventLines, 0, frame, id.length, sseEventLines.length);
+        json.get(0, frame, id.length + sseEventLines.length, json.capacity());
+        frame[frame.length - 2] = '\n';
+        frame[frame.length - 1] = '\n';
+        return frame;
+    }
+
+    /**
+     * Copy the payloads separated by commas, reading off-heap ones in place.
+     *
+     * @return position after the last payload
+     */
+    private static int writeArrayElements(ByteBuffer[] payloads, byte[] target, int position) {
+        for (int i = 0; i < payloads.length; i++) {
+            if (i > 0) {
+                target[position++] = ',';
+            }
+            int length = payloads[i].capacity();
+            payloads[i].get(0, target, position, length);
+            position += length;
+        }
+        return position;
+    }
+
+    /**
+     * Heap copy of an off-heap encoding, shared by the clients the event is sent to around the same time.
+     */
+    private static byte[] heapCopy(AtomicReferenceArray<HeapCopy> recent, LiveLogEvent event, ByteBuffer stored) {
+        int slot = (int) event.getSequence() & (RECENT_COPIES - 1);
+        HeapCopy copy = recent.get(slot);
+        if (copy == null || copy.event() != event) {
+            copy = new HeapCopy(event, OffHeapLogStore.load(stored));
+            recent.set(slot, copy);
+        }
+        return copy.bytes();
+    }
+
+    private String formatTimestamp(long millis) {
+        FormattedTimestamp last = lastTimestamp;
+        if (last.millis() != millis) {
+            last = new FormattedTimestamp(millis, formatter.format(Instant.ofEpochMilli(millis)));
+            lastTimestamp = last;
+        }
+        return last.text();
+    }
+
+    private record HeapCopy(LiveLogEvent event, byte[] bytes) {
+    }
+
+    private record FormattedTimestamp(long millis, String text) {
+    }
+}
@@ -0,0 +1,164 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import ch.qos.logback.classic.Level;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A buffered log event in compact form together with its encoded forms.
+ * <p>
+ * Only what is sent to clients is kept: no argument arrays, MDC or caller data of the original
+ * Logback event. Encodings are produced lazily by {@link LiveLogEncoder} at most once and then
+ * shared by every subscriber that receives the event. With an {@link OffHeapLogStore}, the message
+ * and both encodings live outside the heap; filters read the message in place.
+ */
+public final class LiveLogEvent {
+
+    /**
+     * Object headers, fields and the ring buffer slot
+     */
+    private static final int OVERHEAD = 128;
+
+    private final long sequence;
+    private final long timestamp;
+    private final Level level;
+    private final String threadName;
+    private final String loggerName;
+    private final String message;
+    private final ByteBuffer offHeapMessage;
+    private final LiveLogThrowable throwable;
+    private final OffHeapLogStore offHeap;
+    private final int textSize;
+    private volatile byte[] json;
+    private volatile ByteBuffer offHeapJson;
+    private volatile byte[] sseFrame;
+    private volatile ByteBuffer offHeapSseFrame;
+
+    LiveLogEvent(long sequence, long timestamp, Level level, String threadName, String loggerName,
+                 String message, LiveLogThrowable throwable, OffHeapLogStore offHeap) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.level = level;
+        this.threadName = threadName;
+        this.loggerName = loggerName;
+        this.throwable = throwable;
+        this.offHeap = offHeap;
+        if (offHeap != null && message != null) {
+            this.message = null;
+            this.offHeapMessage = offHeap.store(message);
+        } else {
+            this.message = message;
+            this.offHeapMessage = null;
+        }
+        this.textSize = 96 + loggerName.length() + threadName.length()
+                + (message != null ? message.length() : 0)
+                + (throwable != null ? throwable.estimatedSize() : 0);
+    }
+
+    /**
+     * Position of the event in the ring buffer, sent to clients as the SSE event ID.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    /**
+     * Formatted message, copied from off-heap memory if stored there.
+     */
+    public String getMessage() {
+        if (offHeapMessage != null) {
+            return offHeapMessage.asCharBuffer().toString();
+        }
+        return message;
+    }
+
+    /**
+     * Formatted message for reading only, without copying it from off-heap memory; may be {@code null}.
+     */
+    public CharSequence getMessageText() {
+        if (offHeapMessage != null) {
+            return offHeapMessage.asCharBuffer();
+        }
+        return message;
+    }
+
+    /**
+     * Exception logged with the event, or {@code null}.
+     */
+    public LiveLogThrowable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * Size of the encoded event in bytes, estimated from its text if it has not been encoded yet.
+     */
+    public int estimatedSize() {
+        byte[] encoded = json;
+        if (encoded != null) {
+            return encoded.length;
+        }
+        ByteBuffer stored = offHeapJson;
+        return stored != null ? stored.capacity() : textSize;
+    }
+
+    /**
+     * Approximate bytes held for this event, on and off the heap together, counting the encodings
+     * it caches once sent. Used to bound the history by size.
+     */
+    public long retainedSize() {
+        // Text plus the cached JSON and SSE frame
+        return OVERHEAD + (long) textSize * 3;
+    }
+
+    boolean isOffHeap() {
+        return offHeap != null;
+    }
+
+    byte[] getJson() {
+        return json;
+    }
+
+    ByteBuffer getOffHeapJson() {
+        return offHeapJson;
+    }
+
+    void setJson(byte[] json) {
+        if (offHeap != null) {
+            this.offHeapJson = offHeap.store(json);
+        } else {
+            this.json = json;
+        }
+    }
+
+    byte[] getSseFrame() {
+        return sseFrame;
+    }
+
+    ByteBuffer getOffHeapSseFrame() {
+        return offHeapSseFrame;
+    }
+
+    void setSseFrame(byte[] sseFrame) {
+        if (offHeap != null) {
+            this.offHeapSseFrame = offHeap.store(sseFrame);
+        } else {
+            this.sseFrame = sseFrame;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import ch.qos.logback.classic.Level;
+import io.joshuasalcedo.commonlibs.domain.BadRequestException;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Server-side filter of a live log subscription.
+ * The filter is compiled once when the client subscribes and is evaluated before an event
+ * is encoded or queued for that client.
+ */
+public final class LiveLogFilter implements Predicate<LiveLogEvent> {
+
+    public static final LiveLogFilter ACCEPT_ALL = new LiveLogFilter(null, null, null, null, null, null);
+
+    private final Level minLevel;
+    private final String[] includeLoggers;
+    private final String[] excludeLoggers;
+    private final Pattern messagePattern;
+    private final Pattern containsPattern;
+    private final Long sinceMillis;
+
+    private LiveLogFilter(Level minLevel, String[] includeLoggers, String[] excludeLoggers,
+                          Pattern messagePattern, Pattern containsPattern, Long sinceMillis) {
+        this.minLevel = minLevel;
+        this.includeLoggers = includeLoggers;
+        this.excludeLoggers = excludeLoggers;
+        this.messagePattern = messagePattern;
+        this.containsPattern = containsPattern;
+        this.sinceMillis = sinceMillis;
+    }
+
+    /**
+     * Compile a filter from request parameters. Every argument is optional.
+     *
+     * @param level          minimum level (TRACE, DEBUG, INFO, WARN, ERROR)
+     * @param includeLoggers logger name prefixes to include; all loggers when empty
+     * @param excludeLoggers logger name prefixes to exclude
+     * @param regex          regular expression that must be found in the message
+     * @param contains       case-insensitive text that must appear in the message or logger name
+     * @param since          only events logged at or after this time (ISO-8601 or epoch millis)
+     * @throws BadRequestException if the level, the regular expression or the timestamp is invalid
+     */
+    public static LiveLogFilter of(String level, List<String> includeLoggers, List<String> excludeLoggers,
+                                   String regex, String contains, String since) {
+        Level minLevel = null;
+        if (hasText(level)) {
+            minLevel = Level.toLevel(level.trim(), null);
+            if (minLevel == null) {
+                throw new BadRequestException("Unknown log level: " + level);
+            }
+        }
+
+        Pattern messagePattern = null;
+        if (hasText(regex)) {
+            try {
+                messagePattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                throw new BadRequestException("Invalid regex: " + e.getDescription(), e);
+            }
+        }
+
+        Pattern containsPattern = hasText(contains)
+                ? Pattern.compile(contains, Pattern.LITERAL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)
+                : null;
+
+        return new LiveLogFilter(minLevel, toPrefixes(includeLoggers), toPrefixes(excludeLoggers),
+                messagePattern, containsPattern, parseTime(since, "since"));
+    }
+
+    /**
+     * Epoch millisecond before which events are rejected, or {@code null} if unrestricted.
+     */
+    public Long getSinceMillis() {
+        return sinceMillis;
+    }
+
+    /**
+     * Copy of this filter with the given start time, for callers that have already parsed it.
+     *
+     * @param sinceMillis only events logged at or after this epoch millisecond; unrestricted when {@code null}
+     */
+    public LiveLogFilter withSinceMillis(Long sinceMillis) {
+        return new LiveLogFilter(minLevel, includeLoggers, excludeLoggers, messagePattern, containsPattern,
+                sinceMillis);
+    }
+
+    @Override
+    public boolean test(LiveLogEvent event) {
+        // The message is only read in place, without copying it from off-heap memory
+        return matches(event.getTimestamp(), event.getLevel(), event.getLoggerName(), event.getMessageText());
+    }
+
+    /**
+     * Evaluate the filter on the fields of an event that is not a {@link LiveLogEvent}, e.g. read from a log file.
+     * The text is only read, so callers can pass views of a reused buffer.
+     *
+     * @param message message of the event, may be {@code null}
+     */
+    public boolean matches(long timestamp, Level level, CharSequence loggerName, CharSequence message) {
+        if (sinceMillis != null && timestamp < sinceMillis) {
+            return false;
+        }
+        if (minLevel != null && !level.isGreaterOrEqual(minLevel)) {
+            return false;
+        }
+
+        if (includeLoggers != null && !startsWithAny(loggerName, includeLoggers)) {
+            return false;
+        }
+        if (excludeLoggers != null && startsWithAny(loggerName, excludeLoggers)) {
+            return false;
+        }
+
+        if (messagePattern != null && (message == null || !messagePattern.matcher(message).find())) {
+            return false;
+        }
+        return containsPattern == null
+                || (message != null && containsPattern.matcher(message).find())
+                || containsPattern.matcher(loggerName).find();
+    }
+
+    private static boolean startsWithAny(CharSequence loggerName, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (startsWith(loggerName, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(CharSequence value, String prefix) {
+        if (value.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (value.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a request timestamp given as ISO-8601 instant or epoch millis.
+     *
+     * @param value     timestamp, may be blank
+     * @param parameter name of the request parameter, for the error message
+     * @return epoch millis, or {@code null} if no timestamp was given
+     * @throws BadRequestException if the timestamp is invalid
+     */
+    public static Long parseTime(String value, String parameter) {
+        if (!hasText(value)) {
+            return null;
+        }
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return Long.parseLong(value);
+            }
+            return Instant.parse(value).toEpochMilli();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid " + parameter + " timestamp: " + value, e);
+        }
+    }
+
+    private static String[] toPrefixes(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        String[] prefixes = values.stream()
+                .filter(LiveLogFilter::hasText)
+                .map(String::trim)
+                .toArray(String[]::new);
+        return prefixes.length == 0 ? null : prefixes;
+    }
+
+    static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
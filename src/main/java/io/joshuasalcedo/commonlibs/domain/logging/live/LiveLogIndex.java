@@ -0,0 +1,331 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over the events of a {@link LogEventRingBuffer}.
+ * <p>
+ * Every event is tokenized once into its message words (including the exception message) and
+ * its {@code level:}, {@code logger:} and {@code thread:} terms. Each term maps to the ascending
+ * sequence numbers of the events containing it, so a {@link LiveLogQuery} is answered by
+ * intersecting posting lists instead of scanning the history.
+ * <p>
+ * Logging threads never touch the index: it catches up with the ring buffer in sequence order
+ * before each search, and drops the postings of events the ring buffer has evicted, so it never
+ * holds more events than the history.
+ */
+public class LiveLogIndex {
+
+    private static final String LEVEL = "level:";
+    private static final String LOGGER = "logger:";
+    private static final String THREAD = "thread:";
+
+    /**
+     * Bounds of the words taken from a message; longer words are not worth indexing
+     */
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_TERMS_PER_EVENT = 64;
+
+    private final LogEventRingBuffer<LiveLogEvent> buffer;
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * Postings of every indexed event by ring buffer slot, to remove them on eviction
+     */
+    private final Postings[][] eventPostings;
+    private long indexedUpTo;
+    private long evictedUpTo;
+
+    public LiveLogIndex(LogEventRingBuffer<LiveLogEvent> buffer) {
+        this.buffer = buffer;
+        this.eventPostings = new Postings[buffer.capacity()][];
+    }
+
+    /**
+     * Find the newest events matching the query.
+     *
+     * @param query compiled query
+     * @param limit maximum number of events to return
+     * @return matching events, newest first
+     */
+    public synchronized LiveLogSearchResult search(LiveLogQuery query, int limit) {
+        long start = System.nanoTime();
+        refresh();
+
+        // Newest matches of all alternatives; one extra tells whether the result was truncated
+        NavigableMap<Long, LiveLogEvent> matches = new TreeMap<>(Collections.reverseOrder());
+        for (LiveLogQuery.Clause clause : query.getClauses()) {
+            collect(clause, query, limit + 1, matches);
+            while (matches.size() > limit + 1) {
+                matches.pollLastEntry();
+            }
+        }
+        boolean truncated = matches.size() > limit;
+        List<LiveLogEvent> events = new ArrayList<>(matches.values());
+        if (truncated) {
+            events.remove(events.size() - 1);
+        }
+        return new LiveLogSearchResult(events, truncated, indexedUpTo - evictedUpTo, System.nanoTime() - start);
+    }
+
+    /**
+     * Number of events currently in the index.
+     */
+    public synchronized long getIndexedEvents() {
+        return indexedUpTo - evictedUpTo;
+    }
+
+    /**
+     * Number of distinct terms currently in the index.
+     */
+    public synchronized int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Index events appended since the last call and forget the ones that were evicted.
+     */
+    private void refresh() {
+        // Events missed while nobody searched are skipped instead of visited one by one
+        long oldest = buffer.oldestSequence();
+        while (evictedUpTo < Math.min(oldest, indexedUpTo)) {
+            evict(evictedUpTo);
+        }
+        if (indexedUpTo < oldest) {
+            indexedUpTo = oldest;
+            evictedUpTo = oldest;
+        }
+
+        long upper = buffer.nextSequence();
+        for (; indexedUpTo < upper; indexedUpTo++) {
+            if (indexedUpTo - evictedUpTo >= eventPostings.length) {
+                evict(evictedUpTo);
+            }
+            LiveLogEvent event = buffer.get(indexedUpTo);
+            if (event == null) {
+                if (indexedUpTo >= buffer.oldestSequence()) {
+                    // Claimed by a writer that has not stored it yet; index it next time
+                    break;
+                }
+                continue;
+            }
+            add(event);
+        }
+
+        oldest = Math.min(buffer.oldestSequence(), indexedUpTo);
+        while (evictedUpTo < oldest) {
+            evict(evictedUpTo);
+        }
+    }
+
+    private void add(LiveLogEvent event) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.add(LEVEL + event.getLevel().toString().toLowerCase(Locale.ROOT));
+        terms.add(LOGGER + event.getLoggerName().toLowerCase(Locale.ROOT));
+        terms.add(THREAD + event.getThreadName().toLowerCase(Locale.ROOT));
+        addWords(event.getMessage(), terms);
+        if (event.getThrowable() != null) {
+            addWords(event.getThrowable().message(), terms);
+        }
+
+        Postings[] lists = new Postings[terms.size()];
+        int i = 0;
+        for (String term : terms) {
+            Postings list = postings.computeIfAbsent(term, Postings::new);
+            list.add(event.getSequence());
+            lists[i++] = list;
+        }
+        eventPostings[slot(event.getSequence())] = lists;
+    }
+
+    private void evict(long sequence) {
+        int slot = slot(sequence);
+        Postings[] lists = eventPostings[slot];
+        if (lists != null) {
+            // Events are evicted in the order they were indexed, so they are always at the head
+            for (Postings list : lists) {
+                if (list.removeHead(sequence) && list.isEmpty()) {
+                    postings.remove(list.term);
+                }
+            }
+            eventPostings[slot] = null;
+        }
+        evictedUpTo = sequence + 1;
+    }
+
+    /**
+     * Add the newest events matching one alternative of the query, at most {@code limit}.
+     */
+    private void collect(LiveLogQuery.Clause clause, LiveLogQuery query, int limit,
+                         NavigableMap<Long, LiveLogEvent> matches) {
+        List<Postings> required = new ArrayList<>();
+        for (String term : clause.required) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return;
+            }
+            required.add(list);
+        }
+        List<List<Postings>> excluded = new ArrayList<>();
+        for (List<String> terms : clause.excluded) {
+            List<Postings> lists = new ArrayList<>();
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    // An event without this term cannot match the excluded word
+                    lists = null;
+                    break;
+                }
+                lists.add(list);
+            }
+            if (lists != null) {
+                excluded.add(lists);
+            }
+        }
+
+        // Walk the shortest posting list, or every indexed event if nothing is required
+        Postings driver = null;
+        for (Postings list : required) {
+            if (driver == null || list.size() < driver.size()) {
+                driver = list;
+            }
+        }
+        long count = driver != null ? driver.size() : indexedUpTo - evictedUpTo;
+        int found = 0;
+        for (long i = count - 1; i >= 0 && found < limit; i--) {
+            long sequence = driver != null ? driver.get((int) i) : evictedUpTo + i;
+            if (!containsAll(required, sequence) || isExcluded(excluded, sequence)) {
+                continue;
+            }
+            LiveLogEvent event = buffer.get(sequence);
+            if (event == null || !query.inTimeRange(event)) {
+                continue;
+            }
+            matches.put(sequence, event);
+            found++;
+        }
+    }
+
+    private static boolean containsAll(List<Postings> lists, long sequence) {
+        for (Postings list : lists) {
+            if (!list.contains(sequence)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isExcluded(List<List<Postings>> excluded, long sequence) {
+        for (List<Postings> lists : excluded) {
+            if (containsAll(lists, sequence)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % eventPostings.length);
+    }
+
+    /**
+     * Terms of one word of a query: a single field term, or the words of the text the same
+     * way messages are tokenized.
+     */
+    static List<String> queryTerms(String word) {
+        String lower = word.toLowerCase(Locale.ROOT);
+        if ((lower.startsWith(LEVEL) || lower.startsWith(LOGGER) || lower.startsWith(THREAD))
+                && lower.indexOf(':') < lower.length() - 1) {
+            return List.of(lower);
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        addWords(word, terms);
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Split text into lower-case runs of letters and digits.
+     */
+    private static void addWords(String text, Set<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length && terms.size() < MAX_TERMS_PER_EVENT; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int wordLength = i - start;
+                if (wordLength >= MIN_TERM_LENGTH && wordLength <= MAX_TERM_LENGTH) {
+                    terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Ascending sequence numbers of the events containing a term
+     */
+    private static final class Postings {
+        private final String term;
+        private long[] sequences = new long[4];
+        private int head;
+        private int tail;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(long sequence) {
+            if (tail == sequences.length) {
+                if (head > sequences.length / 2) {
+                    // Mostly evicted; reuse the space at the front
+                    System.arraycopy(sequences, head, sequences, 0, tail - head);
+                } else {
+                    sequences = Arrays.copyOfRange(sequences, head, sequences.length * 2);
+                }
+                tail -= head;
+                head = 0;
+            }
+            sequences[tail++] = sequence;
+        }
+
+        boolean removeHead(long sequence) {
+            if (head < tail && sequences[head] == sequence) {
+                head++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean contains(long sequence) {
+            return Arrays.binarySearch(sequences, head, tail, sequence) >= 0;
+        }
+
+        long get(int index) {
+            return sequences[head + index];
+        }
+
+        int size() {
+            return tail - head;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics for a live log transport: active, reaped and rejected subscribers,
+ * lag, drops and buffered bytes.
+ */
+public class LiveLogMetrics implements MeterBinder {
+
+    private final LiveLogDispatcher dispatcher;
+    private final String transport;
+
+    public LiveLogMetrics(LiveLogDispatcher dispatcher, String transport) {
+        this.dispatcher = dispatcher;
+        this.transport = transport;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        LiveLogBackpressure backpressure = dispatcher.getBackpressure();
+
+        Gauge.builder("live.logs.subscribers", dispatcher, LiveLogDispatcher::getSubscriberCount)
+                .description("Connected live log subscribers")
+                .tag("transport", transport)
+                .register(registry);
+
+        Gauge.builder("live.logs.lag", dispatcher, LiveLogDispatcher::getMaxLag)
+                .description("Events the furthest-behind subscriber has not received yet")
+                .tag("transport", transport)
+                .register(registry);
+
+        Gauge.builder("live.logs.buffered", backpressure, LiveLogBackpressure::getBufferedBytes)
+                .description("Bytes handed to live log subscribers but not yet written")
+                .baseUnit("bytes")
+                .tag("transport", transport)
+                .register(registry);
+
+        FunctionCounter.builder("live.logs.dropped", backpressure, LiveLogBackpressure::getDroppedEvents)
+                .description("Events not delivered to a subscriber because it was too slow")
+                .tag("transport", transport)
+                .register(registry);
+
+        FunctionCounter.builder("live.logs.slow.disconnects", backpressure, LiveLogBackpressure::getDisconnects)
+                .description("Subscribers disconnected by the slow-consumer policy")
+                .tag("transport", transport)
+                .register(registry);
+
+        FunctionCounter.builder("live.logs.connections.reaped", dispatcher, LiveLogDispatcher::getReapedConnections)
+                .description("Subscribers closed because the connection was dead or exceeded its lifetime")
+                .tag("transport", transport)
+                .register(registry);
+
+        FunctionCounter.builder("live.logs.connections.rejected", dispatcher, LiveLogDispatcher::getRejectedConnections)
+                .description("Subscribers refused because the maximum number of subscribers was reached")
+                .tag("transport", transport)
+                .register(registry);
+    }
+}
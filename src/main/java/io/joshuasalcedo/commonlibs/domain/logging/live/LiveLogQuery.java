@@ -0,0 +1,98 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import io.joshuasalcedo.commonlibs.domain.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed search over the {@link LiveLogIndex}.
+ * <p>
+ * Words are required terms; {@code -word} or {@code NOT word} excludes events containing it and
+ * {@code OR} separates alternatives, e.g. {@code timeout level:error OR -retry refused}.
+ * Besides message words, {@code level:}, {@code logger:} and {@code thread:} match the exact
+ * level, logger name or thread name. Terms are case-insensitive.
+ */
+public final class LiveLogQuery {
+
+    private final List<Clause> clauses;
+    private final Long fromMillis;
+    private final Long toMillis;
+
+    private LiveLogQuery(List<Clause> clauses, Long fromMillis, Long toMillis) {
+        this.clauses = clauses;
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+    }
+
+    /**
+     * Compile a query from request parameters. Every argument is optional; an empty query
+     * matches all events in the time range.
+     *
+     * @param query query string
+     * @param from  only events logged at or after this time (ISO-8601 or epoch millis)
+     * @param to    only events logged before this time (ISO-8601 or epoch millis)
+     * @throws BadRequestException if a timestamp is invalid
+     */
+    public static LiveLogQuery parse(String query, String from, String to) {
+        List<Clause> clauses = new ArrayList<>();
+        Clause clause = new Clause();
+        boolean negate = false;
+        String[] words = LiveLogFilter.hasText(query) ? query.trim().split("\\s+") : new String[0];
+        for (String word : words) {
+            switch (word) {
+                case "OR" -> {
+                    if (!clause.isEmpty()) {
+                        clauses.add(clause);
+                    }
+                    clause = new Clause();
+                    negate = false;
+                }
+                case "AND" -> {
+                }
+                case "NOT" -> negate = true;
+                default -> {
+                    if (word.startsWith("-") && word.length() > 1) {
+                        negate = true;
+                        word = word.substring(1);
+                    }
+                    List<String> terms = LiveLogIndex.queryTerms(word);
+                    if (!terms.isEmpty()) {
+                        if (negate) {
+                            clause.excluded.add(terms);
+                        } else {
+                            clause.required.addAll(terms);
+                        }
+                    }
+                    negate = false;
+                }
+            }
+        }
+        if (!clause.isEmpty() || clauses.isEmpty()) {
+            clauses.add(clause);
+        }
+        return new LiveLogQuery(clauses, LiveLogFilter.parseTime(from, "from"), LiveLogFilter.parseTime(to, "to"));
+    }
+
+    List<Clause> getClauses() {
+        return clauses;
+    }
+
+    boolean inTimeRange(LiveLogEvent event) {
+        return (fromMillis == null || event.getTimestamp() >= fromMillis)
+                && (toMillis == null || event.getTimestamp() < toMillis);
+    }
+
+    /**
+     * Alternative of a query: all required terms must be present, and none of the excluded term
+     * groups (a word that was split into several terms excludes events containing all of them)
+     */
+    static final class Clause {
+        final List<String> required = new ArrayList<>();
+        final List<List<String>> excluded = new ArrayList<>();
+
+        boolean isEmpty() {
+            return required.isEmpty() && excluded.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.List;
+
+/**
+ * Result of a {@link LiveLogIndex} search.
+ *
+ * @param events        matching events, newest first
+ * @param truncated     whether more events matched than were returned
+ * @param indexedEvents number of events that were searched
+ * @param tookNanos     time the search took
+ */
+public record LiveLogSearchResult(List<LiveLogEvent> events, boolean truncated, long indexedEvents, long tookNanos) {
+}
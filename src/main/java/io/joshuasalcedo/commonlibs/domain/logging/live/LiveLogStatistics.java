@@ -0,0 +1,31 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Log counts aggregated over a time window by {@link LiveLogStats}.
+ *
+ * @param from     start of the window (epoch millis, inclusive)
+ * @param to       end of the window (epoch millis, exclusive)
+ * @param bucketMs length of one entry of the timeline
+ * @param total    number of events in the window
+ * @param levels   number of events per level
+ * @param loggers  loggers with the most events, most first
+ * @param buckets  counts per time bucket, oldest first
+ */
+public record LiveLogStatistics(long from, long to, long bucketMs, long total, Map<String, Long> levels,
+                                List<LoggerCount> loggers, List<BucketCount> buckets) {
+
+    /**
+     * Counts of one logger within the window
+     */
+    public record LoggerCount(String logger, long total, Map<String, Long> levels) {
+    }
+
+    /**
+     * Counts of one time bucket
+     */
+    public record BucketCount(long start, long total, Map<String, Long> levels) {
+    }
+}
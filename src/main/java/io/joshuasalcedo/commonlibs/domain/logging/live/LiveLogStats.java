@@ -0,0 +1,188 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rolling log counts per level and logger in fixed-size time buckets.
+ * <p>
+ * Logging threads only increment striped {@link LongAdder}s of the bucket their event falls in,
+ * so recording never blocks and costs the same however many dashboards read the statistics.
+ * Buckets form a ring: a bucket whose time has passed out of the retention is replaced by the
+ * first event of a new period, and events older than the retention are not counted.
+ */
+public class LiveLogStats {
+
+    /**
+     * Logger name under which events are counted once a bucket tracks the maximum number of loggers
+     */
+    public static final String OTHER_LOGGERS = "(other)";
+
+    private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR};
+
+    private final long bucketMs;
+    private final int maxLoggers;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * @param bucketMs   length of one time bucket in milliseconds
+     * @param buckets    number of buckets kept; the retention is {@code bucketMs * buckets}
+     * @param maxLoggers maximum number of loggers counted separately per bucket
+     */
+    public LiveLogStats(long bucketMs, int buckets, int maxLoggers) {
+        if (bucketMs <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException(
+                    "Bucket length and count must be positive: " + bucketMs + ", " + buckets);
+        }
+        this.bucketMs = bucketMs;
+        this.maxLoggers = maxLoggers;
+        this.buckets = new AtomicReferenceArray<>(buckets);
+    }
+
+    /**
+     * Count one event. Never blocks.
+     */
+    public void record(long timestamp, Level level, String loggerName) {
+        Bucket bucket = bucket(Math.floorDiv(timestamp, bucketMs));
+        if (bucket == null) {
+            return;
+        }
+        int index = levelIndex(level);
+        bucket.levels[index].increment();
+        bucket.logger(loggerName, maxLoggers)[index].increment();
+    }
+
+    public long getBucketMs() {
+        return bucketMs;
+    }
+
+    /**
+     * Longest window that can be aggregated, in milliseconds.
+     */
+    public long getRetentionMs() {
+        return bucketMs * buckets.length();
+    }
+
+    /**
+     * Aggregate the buckets of the most recent window, including the current, still filling bucket.
+     *
+     * @param windowMs   length of the window; rounded up to whole buckets and capped at the retention
+     * @param topLoggers number of loggers with the most events to include
+     */
+    public LiveLogStatistics snapshot(long windowMs, int topLoggers) {
+        long current = Math.floorDiv(System.currentTimeMillis(), bucketMs);
+        long count = Math.max(1, Math.min(buckets.length(), (windowMs + bucketMs - 1) / bucketMs));
+        long first = current - count + 1;
+
+        long[] levelTotals = new long[LEVELS.length];
+        Map<String, long[]> loggerTotals = new HashMap<>();
+        List<LiveLogStatistics.BucketCount> timeline = new ArrayList<>((int) count);
+        for (long epoch = first; epoch <= current; epoch++) {
+            long[] bucketTotals = new long[LEVELS.length];
+            Bucket bucket = buckets.get(slot(epoch));
+            if (bucket != null && bucket.epoch == epoch) {
+                for (int i = 0; i < LEVELS.length; i++) {
+                    bucketTotals[i] = bucket.levels[i].sum();
+                    levelTotals[i] += bucketTotals[i];
+                }
+                bucket.loggers.forEach((logger, adders) -> {
+                    long[] totals = loggerTotals.computeIfAbsent(logger, name -> new long[LEVELS.length]);
+                    for (int i = 0; i < LEVELS.length; i++) {
+                        totals[i] += adders[i].sum();
+                    }
+                });
+            }
+            timeline.add(new LiveLogStatistics.BucketCount(epoch * bucketMs, sum(bucketTotals),
+                    byLevel(bucketTotals)));
+        }
+
+        List<LiveLogStatistics.LoggerCount> loggers = loggerTotals.entrySet().stream()
+                .map(entry -> new LiveLogStatistics.LoggerCount(entry.getKey(), sum(entry.getValue()),
+                        byLevel(entry.getValue())))
+                .filter(logger -> logger.total() > 0)
+                .sorted(Comparator.comparingLong(LiveLogStatistics.LoggerCount::total).reversed())
+                .limit(Math.max(0, topLoggers))
+                .toList();
+        return new LiveLogStatistics(first * bucketMs, (current + 1) * bucketMs, bucketMs,
+                sum(levelTotals), byLevel(levelTotals), loggers, timeline);
+    }
+
+    /**
+     * Bucket of the given period, replacing the expired bucket in its slot.
+     *
+     * @return {@code null} if the period is older than the retention
+     */
+    private Bucket bucket(long epoch) {
+        int slot = slot(epoch);
+        while (true) {
+            Bucket current = buckets.get(slot);
+            if (current != null && current.epoch >= epoch) {
+                return current.epoch == epoch ? current : null;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, buckets.length());
+    }
+
+    private static int levelIndex(Level level) {
+        return Math.max(0, Math.min(LEVELS.length - 1, level.toInt() / Level.DEBUG_INT));
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static Map<String, Long> byLevel(long[] counts) {
+        Map<String, Long> levels = new LinkedHashMap<>();
+        for (int i = 0; i < LEVELS.length; i++) {
+            levels.put(LEVELS[i].toString(), counts[i]);
+        }
+        return levels;
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[LEVELS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final LongAdder[] levels = newCounters();
+        private final Map<String, LongAdder[]> loggers = new ConcurrentHashMap<>();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        LongAdder[] logger(String loggerName, int maxLoggers) {
+            LongAdder[] counters = loggers.get(loggerName);
+            if (counters == null) {
+                String key = loggers.size() < maxLoggers ? loggerName : OTHER_LOGGERS;
+                counters = loggers.computeIfAbsent(key, name -> newCounters());
+            }
+            return counters;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes {@link LiveLogStats} aggregates to streaming clients at a fixed interval.
+ * A single thread serves all clients, and clients asking for the same window share one snapshot.
+ */
+public class LiveLogStatsPublisher {
+
+    /**
+     * Destination of the aggregates of one client connection
+     */
+    public interface Sink {
+        void send(LiveLogStatistics statistics) throws Exception;
+
+        void close();
+    }
+
+    private final LiveLogStats stats;
+    private final long intervalMs;
+    private final int maxSubscribers;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param stats          statistics to publish
+     * @param intervalMs     interval between two pushes in milliseconds
+     * @param maxSubscribers maximum number of connected clients; 0 is unlimited
+     */
+    public LiveLogStatsPublisher(LiveLogStats stats, long intervalMs, int maxSubscribers) {
+        this.stats = stats;
+        this.intervalMs = Math.max(1, intervalMs);
+        this.maxSubscribers = maxSubscribers;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-log-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::publish, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop publishing and close all clients.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+        for (Subscription subscription : subscriptions) {
+            subscription.sink().close();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Start pushing aggregates to the sink; the first one is sent right away.
+     *
+     * @param windowMs   length of the aggregated window
+     * @param topLoggers number of loggers with the most events to include
+     * @return {@code false} if the maximum number of clients is reached
+     */
+    public synchronized boolean subscribe(Sink sink, long windowMs, int topLoggers) {
+        if (maxSubscribers > 0 && subscriptions.size() >= maxSubscribers) {
+            return false;
+        }
+        // Normalized so that clients asking for the same number of buckets share a snapshot
+        long bucketMs = stats.getBucketMs();
+        long buckets = Math.max(1, (Math.min(stats.getRetentionMs(), windowMs) + bucketMs - 1) / bucketMs);
+        Subscription subscription = new Subscription(sink, buckets * bucketMs, topLoggers);
+        subscriptions.add(subscription);
+        scheduler.execute(() -> send(subscription, stats.snapshot(subscription.windowMs(), topLoggers)));
+        return true;
+    }
+
+    public void unsubscribe(Sink sink) {
+        subscriptions.removeIf(subscription -> subscription.sink() == sink);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void publish() {
+        Map<Subscription.Key, LiveLogStatistics> snapshots = new HashMap<>();
+        for (Subscription subscription : subscriptions) {
+            LiveLogStatistics statistics = snapshots.computeIfAbsent(subscription.key(),
+                    key -> stats.snapshot(key.windowMs(), key.topLoggers()));
+            send(subscription, statistics);
+        }
+    }
+
+    private void send(Subscription subscription, LiveLogStatistics statistics) {
+        try {
+            subscription.sink().send(statistics);
+        } catch (Exception e) {
+            // The client went away
+            if (subscriptions.remove(subscription)) {
+                subscription.sink().close();
+            }
+        }
+    }
+
+    private record Subscription(Sink sink, long windowMs, int topLoggers) {
+        Key key() {
+            return new Key(windowMs, topLoggers);
+        }
+
+        record Key(long windowMs, int topLoggers) {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A consumer of the live log stream that reads the shared ring buffer at its own pace, such as
+ * an SSE or WebSocket client or a message broker destination.
+ * Each subscriber keeps its own read cursor; the {@link LiveLogDispatcher} guarantees
+ * that at most one thread delivers to a subscriber at any time.
+ */
+public abstract class LiveLogSubscriber {
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final LiveLogFilter filter;
+    private final long replayEnd;
+    private volatile long cursor;
+    private volatile long lastFlushNanos;
+    private volatile long lastWriteNanos;
+    private volatile long connectedNanos;
+
+    protected LiveLogSubscriber(long cursor, LiveLogFilter filter) {
+        this(cursor, cursor, filter);
+    }
+
+    /**
+     * @param cursor    first sequence to deliver
+     * @param replayEnd first live sequence; events before it are history replayed by the dispatcher
+     * @param filter    server-side subscription filter
+     */
+    protected LiveLogSubscriber(long cursor, long replayEnd, LiveLogFilter filter) {
+        this.cursor = cursor;
+        this.replayEnd = replayEnd;
+        this.filter = filter;
+    }
+
+    /**
+     * Deliver the next log events to the client, oldest first.
+     *
+     * @param events events accepted by this subscriber's filter; never empty
+     * @throws Exception if the client can no longer receive events
+     */
+    protected abstract void deliver(List<LiveLogEvent> events) throws Exception;
+
+    /**
+     * Send a keep-alive that carries no event, e.g. an SSE comment frame.
+     *
+     * @throws Exception if the client can no longer receive events
+     */
+    protected abstract void heartbeat() throws Exception;
+
+    /**
+     * Release the client connection after a delivery failure, when its lifetime is over, or on shutdown.
+     */
+    protected abstract void close(Throwable cause);
+
+    /**
+     * Number of events the client is currently ready to receive.
+     * Transports with their own flow control (e.g. Reactive Streams demand) override this;
+     * while it is zero the subscriber is not drained and falls behind instead.
+     */
+    protected long getDemand() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Whether this subscriber is a client connection. Heartbeats, the maximum lifetime, the maximum
+     * number of subscribers and the DISCONNECT policy only apply to connections; a sink inside the
+     * application, e.g. a message broker destination, could not reconnect and skips ahead instead.
+     */
+    protected boolean isConnection() {
+        return true;
+    }
+
+    /**
+     * Whether this subscriber asked for the given event.
+     */
+    public boolean accepts(LiveLogEvent event) {
+        return filter.test(event);
+    }
+
+    /**
+     * Sequence number of the next event this subscriber has not yet received.
+     */
+    public long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * First sequence that was not part of the history replayed on connect.
+     * Replayed events do not count towards the slow-consumer lag.
+     */
+    public long getReplayEnd() {
+        return replayEnd;
+    }
+
+    void setCursor(long cursor) {
+        this.cursor = cursor;
+    }
+
+    long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    void setLastFlushNanos(long lastFlushNanos) {
+        this.lastFlushNanos = lastFlushNanos;
+    }
+
+    long getLastWriteNanos() {
+        return lastWriteNanos;
+    }
+
+    void setLastWriteNanos(long lastWriteNanos) {
+        this.lastWriteNanos = lastWriteNanos;
+    }
+
+    long getConnectedNanos() {
+        return connectedNanos;
+    }
+
+    void setConnectedNanos(long connectedNanos) {
+        this.connectedNanos = connectedNanos;
+    }
+
+    boolean trySchedule() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    void release() {
+        scheduled.set(false);
+    }
+}
@@ -0,0 +1,24 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.List;
+
+/**
+ * Compact, immutable copy of the exception attached to a log event.
+ * Identical exceptions logged repeatedly share one instance (see {@link LiveLogCompactor}).
+ *
+ * @param message    exception message
+ * @param stackTrace stack frames, outermost call last; empty if stack traces are not kept
+ */
+public record LiveLogThrowable(String message, List<String> stackTrace) {
+
+    /**
+     * Approximate heap size in bytes.
+     */
+    int estimatedSize() {
+        int size = 48 + (message != null ? message.length() : 0);
+        for (String frame : stackTrace) {
+            size += 40 + frame.length();
+        }
+        return size;
+    }
+}
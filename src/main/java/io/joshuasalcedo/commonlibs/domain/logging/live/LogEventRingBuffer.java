@@ -0,0 +1,176 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fixed-capacity, lock-free ring buffer that keeps the most recent log events.
+ * Every appended element is assigned a monotonically increasing sequence number;
+ * once the buffer is full, new elements overwrite the oldest ones.
+ * <p>
+ * The buffer can additionally be bounded by the total size of its elements, in which case
+ * the oldest elements are evicted as soon as the byte budget is exceeded.
+ *
+ * @param <E> type of the buffered elements
+ */
+public class LogEventRingBuffer<E> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<Slot<E>> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final long maxBytes;
+    private final ToLongFunction<? super E> sizer;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong evictedBefore = new AtomicLong();
+
+    public LogEventRingBuffer(int capacity) {
+        this(capacity, Long.MAX_VALUE, element -> 0);
+    }
+
+    /**
+     * @param capacity maximum number of elements
+     * @param maxBytes maximum total size of the elements; the newest element is always kept
+     * @param sizer    approximate size of an element in bytes
+     */
+    public LogEventRingBuffer(int capacity, long maxBytes, ToLongFunction<? super E> sizer) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+    }
+
+    /**
+     * Append an element without blocking.
+     *
+     * @return sequence number assigned to the element
+     */
+    public long append(E element) {
+        return publish(sequence -> element);
+    }
+
+    /**
+     * Append an element that needs to know its own sequence number, without blocking.
+     *
+     * @param factory creates the element from the sequence number assigned to it
+     * @return sequence number assigned to the element
+     */
+    public long publish(LongFunction<? extends E> factory) {
+        long sequence = nextSequence.getAndIncrement();
+        E element = factory.apply(sequence);
+        Slot<E> slot = new Slot<>(sequence, element, sizer.applyAsLong(element));
+        int index = indexOf(sequence);
+
+        // A writer that was descheduled must never overwrite a newer element
+        Slot<E> current;
+        do {
+            current = slots.get(index);
+            if (current != null && current.sequence > sequence) {
+                return sequence;
+            }
+        } while (!slots.compareAndSet(index, current, slot));
+
+        // Whoever removes an element from its slot gives its bytes back
+        retainedBytes.addAndGet(slot.size - (current != null ? current.size : 0));
+        if (sequence < evictedBefore.get()) {
+            // Evicted by the byte budget while this writer was storing it
+            remove(index, slot);
+        }
+        trimToBudget();
+        return sequence;
+    }
+
+    /**
+     * Get the element stored under the given sequence number.
+     *
+     * @return the element, or {@code null} if it has been overwritten or is not yet published
+     */
+    public E get(long sequence) {
+        if (sequence < 0) {
+            return null;
+        }
+        Slot<E> slot = slots.get(indexOf(sequence));
+        return slot != null && slot.sequence == sequence ? slot.value : null;
+    }
+
+    /**
+     * Sequence number that will be assigned to the next appended element.
+     */
+    public long nextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Lowest sequence number that may still be present in the buffer.
+     */
+    public long oldestSequence() {
+        return Math.max(evictedBefore.get(), Math.max(0, nextSequence.get() - capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Approximate total size of the buffered elements in bytes.
+     */
+    public long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * Take a snapshot of the buffered elements, oldest first.
+     * Writers are never blocked; elements overwritten while the snapshot is taken are skipped.
+     */
+    public List<E> snapshot() {
+        long upper = nextSequence.get();
+        long lower = oldestSequence();
+        List<E> result = new ArrayList<>((int) Math.max(0, upper - lower));
+        for (long sequence = lower; sequence < upper; sequence++) {
+            E element = get(sequence);
+            if (element != null) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evict the oldest elements until the retained bytes fit the budget again.
+     */
+    private void trimToBudget() {
+        while (retainedBytes.get() > maxBytes) {
+            long evicted = evictedBefore.get();
+            long oldest = Math.max(evicted, nextSequence.get() - capacity);
+            if (oldest >= nextSequence.get() - 1) {
+                return;
+            }
+            if (evictedBefore.compareAndSet(evicted, oldest + 1)) {
+                int index = indexOf(oldest);
+                Slot<E> slot = slots.get(index);
+                if (slot != null && slot.sequence == oldest) {
+                    remove(index, slot);
+                }
+            }
+        }
+    }
+
+    private void remove(int index, Slot<E> slot) {
+        if (slots.compareAndSet(index, slot, null)) {
+            retainedBytes.addAndGet(-slot.size);
+        }
+    }
+
+    private int indexOf(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private record Slot<E>(long sequence, E value, long size) {
+    }
+}
@@ -0,0 +1,67 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the bulky bytes of buffered log events (message text, cached encodings) outside the Java heap.
+ * <p>
+ * Bytes are bump-allocated from direct {@link ByteBuffer} segments. A segment is never reused;
+ * its native memory is released once every event stored in it has been evicted from the history
+ * and collected, so a reader can never observe bytes of another event.
+ */
+public class OffHeapLogStore {
+
+    private final int segmentSize;
+    private ByteBuffer segment;
+
+    public OffHeapLogStore(int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Copy the given bytes off-heap.
+     *
+     * @return read-only view of the stored bytes
+     */
+    public ByteBuffer store(byte[] bytes) {
+        ByteBuffer region = allocate(bytes.length);
+        region.put(0, bytes);
+        return region.asReadOnlyBuffer();
+    }
+
+    /**
+     * Copy the characters of the text off-heap, so they can be read as a {@link CharSequence} in place.
+     *
+     * @return read-only view of the stored UTF-16 characters
+     */
+    public ByteBuffer store(String text) {
+        ByteBuffer region = allocate(text.length() * 2);
+        region.asCharBuffer().put(text);
+        return region.asReadOnlyBuffer();
+    }
+
+    /**
+     * Copy stored bytes back onto the heap.
+     */
+    public static byte[] load(ByteBuffer stored) {
+        byte[] bytes = new byte[stored.capacity()];
+        stored.get(0, bytes);
+        return bytes;
+    }
+
+    private synchronized ByteBuffer allocate(int length) {
+        if (length > segmentSize / 4) {
+            // Large values get their own buffer instead of wasting the rest of a segment
+            return ByteBuffer.allocateDirect(length);
+        }
+        if (segment == null || segment.remaining() < length) {
+            segment = ByteBuffer.allocateDirect(segmentSize);
+        }
+        ByteBuffer region = segment.slice(segment.position(), length);
+        segment.position(segment.position() + length);
+        return region;
+    }
+}
@@ -0,0 +1,21 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+/**
+ * What to do with a live log subscriber that falls too far behind the stream.
+ */
+public enum SlowConsumerPolicy {
+    /**
+     * Skip ahead, dropping the oldest events the subscriber has not received yet
+     */
+    DROP_OLDEST,
+
+    /**
+     * Deliver only every n-th event until the subscriber has caught up
+     */
+    SAMPLE,
+
+    /**
+     * Close the subscriber's connection
+     */
+    DISCONNECT
+}
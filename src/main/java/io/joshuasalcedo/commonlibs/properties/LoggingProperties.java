@@ -65,4 +65,31 @@ public class LoggingProperties {
      * Package name to apply logging to (defaults to your base package)
      */
     private String basePackage = "io.joshuasalcedo";
-}
\ No newline at end of file
+
+    /**
+     * Enable or disable collapsing of log storms (the same message template repeated by one logger)
+     */
+    private boolean stormSuppression = true;
+
+    /**
+     * Length of a log storm window in milliseconds
+     */
+    private long stormWindowMs = 1000;
+
+    /**
+     * Lowest level of the messages that are collapsed; suppressed events are dropped from every
+     * appender, so lower levels are always logged
+     */
+    private String stormMinLevel = "WARN";
+
+    /**
+     * Occurrences of the same message template per window that are logged before the rest is
+     * collapsed into one summary event with a repeat count
+     */
+    private int stormAllowedRepeats = 100;
+
+    /**
+     * Maximum number of distinct message templates tracked at once; further ones are not suppressed
+     */
+    private int stormMaxTrackedMessages = 4096;
+}
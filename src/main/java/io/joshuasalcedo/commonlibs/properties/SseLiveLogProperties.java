@@ -1,5 +1,6 @@
 package io.joshuasalcedo.commonlibs.properties;
 
+import io.joshuasalcedo.commonlibs.domain.logging.live.SlowConsumerPolicy;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -27,6 +28,17 @@ public class SseLiveLogProperties {
      * Maximum number of logs to keep in memory
      */
     private int maxLogsInMemory = 1000;
+
+    /**
+     * Maximum approximate size in bytes of the logs kept in memory, on and off the heap together;
+     * the oldest are evicted first
+     */
+    private long maxHistoryBytes = 8L * 1024 * 1024;
+
+    /**
+     * Whether to keep message text and encoded events in direct (off-heap) memory
+     */
+    private boolean offHeap = false;
     
     /**
      * Whether to send recent logs when a client connects
@@ -37,6 +49,23 @@ public class SseLiveLogProperties {
      * SSE event timeout in milliseconds
      */
     private long timeoutMs = Long.MAX_VALUE;
+
+    /**
+     * Interval in milliseconds after which an idle connection receives an SSE comment as heartbeat;
+     * 0 disables heartbeats
+     */
+    private long heartbeatIntervalMs = 15_000;
+
+    /**
+     * Maximum lifetime of a connection in milliseconds, after which it is closed and the client
+     * reconnects with its Last-Event-ID; 0 is unlimited
+     */
+    private long maxConnectionLifetimeMs = 60 * 60 * 1000;
+
+    /**
+     * Maximum number of concurrent live log subscribers; 0 is unlimited
+     */
+    private int maxSubscribers = 100;
     
     /**
      * Name of the SSE event
@@ -58,4 +87,85 @@ public class SseLiveLogProperties {
      */
     private boolean includeStackTraces = true;
 
+    /**
+     * Whether to group events into a single SSE frame holding a JSON array
+     */
+    private boolean batchEnabled = false;
+
+    /**
+     * Maximum number of events in one batch frame; a full batch is flushed immediately
+     */
+    private int batchMaxEvents = 100;
+
+    /**
+     * Maximum time in milliseconds an event waits for its batch to fill before it is flushed
+     */
+    private long batchFlushIntervalMs = 250;
+
+    /**
+     * What to do with a subscriber that falls more than max-lag-events behind:
+     * DROP_OLDEST, SAMPLE or DISCONNECT
+     */
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.DROP_OLDEST;
+
+    /**
+     * Number of pending events after which the slow-consumer policy applies to a subscriber
+     */
+    private long maxLagEvents = 500;
+
+    /**
+     * With the SAMPLE policy, deliver one in this many events while a subscriber is lagging
+     */
+    private int sampleRate = 10;
+
+    /**
+     * Global budget in bytes for events handed to subscribers but not yet written
+     */
+    private long maxBufferedBytes = 16 * 1024 * 1024;
+
+    /**
+     * Whether to keep a search index over the logs in memory and serve /logs/query
+     */
+    private boolean indexEnabled = true;
+
+    /**
+     * Maximum number of events returned by one query
+     */
+    private int queryMaxResults = 1000;
+
+    /**
+     * Whether to keep rolling log counts per level and logger and serve /logs/stats
+     */
+    private boolean statsEnabled = true;
+
+    /**
+     * Length in milliseconds of one statistics time bucket
+     */
+    private long statsBucketMs = 10_000;
+
+    /**
+     * Number of statistics time buckets kept; with the defaults, the last 10 minutes
+     */
+    private int statsBuckets = 60;
+
+    /**
+     * Maximum number of loggers counted separately per time bucket; further ones are counted as "(other)"
+     */
+    private int statsMaxLoggers = 500;
+
+    /**
+     * Interval in milliseconds at which /logs/stats/stream pushes aggregates
+     */
+    private long statsPushIntervalMs = 5_000;
+
+    /**
+     * Whether to stream logs as CBOR frames over a raw WebSocket endpoint
+     */
+    private boolean binaryWebSocketEnabled = true;
+
+    /**
+     * Path of the binary WebSocket endpoint
+     */
+    private String binaryWebSocketPath = "/ws-logs-binary";
+
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogFileRangeTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    void parsesClosedRange() {
+        LogFileRange range = LogFileRange.parse("bytes=100-199", SIZE);
+
+        assertThat(range).isEqualTo(new LogFileRange(100, 199));
+        assertThat(range.length()).isEqualTo(100);
+        assertThat(range.contentRange(SIZE)).isEqualTo("bytes 100-199/1000");
+    }
+
+    @Test
+    void openRangeRunsToTheEndOfTheFile() {
+        assertThat(LogFileRange.parse("bytes=990-", SIZE)).isEqualTo(new LogFileRange(990, 999));
+    }
+
+    @Test
+    void endBeyondTheFileIsClamped() {
+        assertThat(LogFileRange.parse("bytes=900-5000", SIZE)).isEqualTo(new LogFileRange(900, 999));
+    }
+
+    @Test
+    void unitAndWhitespaceAreLenient() {
+        assertThat(LogFileRange.parse("Bytes= 0 - 0 ", SIZE)).isEqualTo(new LogFileRange(0, 0));
+    }
+
+    @Test
+    void suffixRangeSelectsTheLastBytes() {
+        assertThat(LogFileRange.parse("bytes=-100", SIZE)).isEqualTo(new LogFileRange(900, 999));
+    }
+
+    @Test
+    void suffixLongerThanTheFileSelectsTheWholeFile() {
+        assertThat(LogFileRange.parse("bytes=-5000", SIZE)).isEqualTo(new LogFileRange(0, 999));
+    }
+
+    @Test
+    void multipleRangesAreIgnored() {
+        assertThat(LogFileRange.parse("bytes=0-99,200-299", SIZE)).isNull();
+        assertThat(LogFileRange.parse("bytes=-10, 0-5", SIZE)).isNull();
+    }
+
+    @Test
+    void malformedRangesAreIgnored() {
+        assertThat(LogFileRange.parse(null, SIZE)).isNull();
+        assertThat(LogFileRange.parse("items=0-99", SIZE)).isNull();
+        assertThat(LogFileRange.parse("bytes=100", SIZE)).isNull();
+        assertThat(LogFileRange.parse("bytes=a-b", SIZE)).isNull();
+        assertThat(LogFileRange.parse("bytes=-", SIZE)).isNull();
+        assertThat(LogFileRange.parse("bytes=200-100", SIZE)).isNull();
+    }
+
+    @Test
+    void startAtOrBeyondTheEndIsUnsatisfiable() {
+        assertThat(LogFileRange.parse("bytes=1000-", SIZE)).isSameAs(LogFileRange.UNSATISFIABLE);
+        assertThat(LogFileRange.parse("bytes=1000-1100", SIZE)).isSameAs(LogFileRange.UNSATISFIABLE);
+    }
+
+    @Test
+    void emptySuffixIsUnsatisfiable() {
+        assertThat(LogFileRange.parse("bytes=-0", SIZE)).isSameAs(LogFileRange.UNSATISFIABLE);
+    }
+
+    @Test
+    void anyRangeOfAnEmptyFileIsUnsatisfiable() {
+        assertThat(LogFileRange.parse("bytes=0-", 0)).isSameAs(LogFileRange.UNSATISFIABLE);
+        assertThat(LogFileRange.parse("bytes=-10", 0)).isSameAs(LogFileRange.UNSATISFIABLE);
+    }
+}
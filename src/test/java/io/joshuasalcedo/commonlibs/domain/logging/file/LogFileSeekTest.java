@@ -0,0 +1,139 @@
+package io.joshuasalcedo.commonlibs.domain.logging.file;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogFileSeekTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm:ss.SSS a", Locale.US).withZone(ZONE);
+    private static final long START = Instant.parse("2025-05-04T11:59:00Z").toEpochMilli();
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Long> timestamps = new ArrayList<>();
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * Events two seconds apart, crossing noon, with every fifth time logged twice and every
+     * seventh event followed by a stack trace
+     */
+    @BeforeEach
+    void writeLogFile() throws IOException {
+        StringBuilder content = new StringBuilder();
+        long time = START;
+        for (int i = 0; i < 500; i++) {
+            offsets.add((long) content.toString().getBytes(StandardCharsets.UTF_8).length);
+            timestamps.add(time);
+            String line = "[ INFO  ] " + TIMESTAMP.format(Instant.ofEpochMilli(time))
+                    + " [main] com.acme.Service                        : event " + i;
+            lines.add(line);
+            content.append(line).append('\n');
+            if (i % 7 == 0) {
+                content.append("java.lang.IllegalStateException: failed ").append(i).append('\n')
+                        .append("\tat com.acme.Service.run(Service.java:42)\n");
+            }
+            if (i % 5 != 0) {
+                time += 2000;
+            }
+        }
+        file = directory.resolve("app.log");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void findsTheFirstEventAtOrAfterEveryTime() throws IOException {
+        long end = timestamps.get(timestamps.size() - 1);
+        for (long time = START - 1000; time <= end; time += 500) {
+            int expected = firstEventAtOrAfter(time);
+
+            LogFileSeek.Window window = LogFileSeek.around(file, time, ZONE, 0, 1, 4096);
+
+            assertThat(window.offset()).as("offset for %d", time).isEqualTo(offsets.get(expected));
+            assertThat(window.timestamp()).isEqualTo(timestamps.get(expected));
+            assertThat(window.after()).containsExactly(lines.get(expected));
+        }
+    }
+
+    @Test
+    void equalTimestampsResolveToTheFirstOfThem() throws IOException {
+        // Events 5 and 6 share a time
+        assertThat(timestamps.get(5)).isEqualTo(timestamps.get(6));
+
+        LogFileSeek.Window window = LogFileSeek.around(file, timestamps.get(6), ZONE, 0, 2, 4096);
+
+        assertThat(window.offset()).isEqualTo(offsets.get(5));
+        assertThat(window.after()).containsExactly(lines.get(5), lines.get(6));
+    }
+
+    @Test
+    void timeBeforeTheFirstEventStartsAtTheBeginning() throws IOException {
+        LogFileSeek.Window window = LogFileSeek.around(file, 0, ZONE, 3, 1, 4096);
+
+        assertThat(window.offset()).isZero();
+        assertThat(window.before()).isEmpty();
+        assertThat(window.after()).containsExactly(lines.get(0));
+    }
+
+    @Test
+    void timeAfterTheLastEventEndsAtTheFileSize() throws IOException {
+        long last = timestamps.get(timestamps.size() - 1);
+
+        LogFileSeek.Window window = LogFileSeek.around(file, last + 1, ZONE, 1, 5, 4096);
+
+        assertThat(window.offset()).isEqualTo(Files.size(file));
+        assertThat(window.timestamp()).isNull();
+        assertThat(window.before()).containsExactly(lines.get(lines.size() - 1));
+        assertThat(window.after()).isEmpty();
+    }
+
+    @Test
+    void linesBeforeIncludeContinuationLines() throws IOException {
+        // Event 7 is followed by a stack trace of two lines
+        LogFileSeek.Window window = LogFileSeek.around(file, timestamps.get(8), ZONE, 3, 0, 4096);
+
+        assertThat(window.offset()).isEqualTo(offsets.get(8));
+        assertThat(window.before()).containsExactly(lines.get(7),
+                "java.lang.IllegalStateException: failed 7", "\tat com.acme.Service.run(Service.java:42)");
+    }
+
+    @Test
+    void emptyFileHasNoEvent() throws IOException {
+        Path empty = Files.createFile(directory.resolve("empty.log"));
+
+        LogFileSeek.Window window = LogFileSeek.around(empty, START, ZONE, 5, 5, 4096);
+
+        assertThat(window.offset()).isZero();
+        assertThat(window.timestamp()).isNull();
+        assertThat(window.before()).isEmpty();
+        assertThat(window.after()).isEmpty();
+    }
+
+    private int firstEventAtOrAfter(long time) {
+        for (int i = 0; i < timestamps.size(); i++) {
+            if (timestamps.get(i) >= time) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No event at or after " + time);
+    }
+}
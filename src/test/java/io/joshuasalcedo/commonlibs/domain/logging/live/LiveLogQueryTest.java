@@ -0,0 +1,130 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import ch.qos.logback.classic.Level;
+import io.joshuasalcedo.commonlibs.domain.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LiveLogQueryTest {
+
+    @Test
+    void wordsAreRequiredTerms() {
+        List<LiveLogQuery.Clause> clauses = LiveLogQuery.parse("Timeout AND refused", null, null).getClauses();
+
+        assertThat(clauses).hasSize(1);
+        assertThat(clauses.get(0).required).containsExactly("timeout", "refused");
+        assertThat(clauses.get(0).excluded).isEmpty();
+    }
+
+    @Test
+    void minusExcludesTheWord() {
+        LiveLogQuery.Clause clause = single("timeout -retry");
+
+        assertThat(clause.required).containsExactly("timeout");
+        assertThat(clause.excluded).containsExactly(List.of("retry"));
+    }
+
+    @Test
+    void notExcludesOnlyTheNextWord() {
+        LiveLogQuery.Clause clause = single("NOT retry timeout");
+
+        assertThat(clause.required).containsExactly("timeout");
+        assertThat(clause.excluded).containsExactly(List.of("retry"));
+    }
+
+    @Test
+    void excludedWordSplitIntoSeveralTermsStaysOneGroup() {
+        LiveLogQuery.Clause clause = single("-connection-refused");
+
+        assertThat(clause.required).isEmpty();
+        assertThat(clause.excluded).containsExactly(List.of("connection", "refused"));
+    }
+
+    @Test
+    void orSeparatesClauses() {
+        List<LiveLogQuery.Clause> clauses =
+                LiveLogQuery.parse("timeout level:error OR -retry refused", null, null).getClauses();
+
+        assertThat(clauses).hasSize(2);
+        assertThat(clauses.get(0).required).containsExactly("timeout", "level:error");
+        assertThat(clauses.get(0).excluded).isEmpty();
+        assertThat(clauses.get(1).required).containsExactly("refused");
+        assertThat(clauses.get(1).excluded).containsExactly(List.of("retry"));
+    }
+
+    @Test
+    void orDoesNotCarryANegationIntoTheNextClause() {
+        LiveLogQuery.Clause clause = single("NOT OR timeout");
+
+        assertThat(clause.required).containsExactly("timeout");
+        assertThat(clause.excluded).isEmpty();
+    }
+
+    @Test
+    void emptyAlternativesAreDropped() {
+        List<LiveLogQuery.Clause> clauses = LiveLogQuery.parse("OR timeout OR OR refused OR", null, null).getClauses();
+
+        assertThat(clauses).hasSize(2);
+        assertThat(clauses.get(0).required).containsExactly("timeout");
+        assertThat(clauses.get(1).required).containsExactly("refused");
+    }
+
+    @Test
+    void fieldTermsAreKeptWholeAndLowerCased() {
+        LiveLogQuery.Clause clause = single("level:ERROR logger:com.acme.Service thread:http-nio-1");
+
+        assertThat(clause.required)
+                .containsExactly("level:error", "logger:com.acme.service", "thread:http-nio-1");
+    }
+
+    @Test
+    void fieldPrefixWithoutValueIsAnOrdinaryWord() {
+        assertThat(single("logger:").required).containsExactly("logger");
+    }
+
+    @Test
+    void wordsWithoutTermsAreIgnored() {
+        LiveLogQuery.Clause clause = single("- a timeout");
+
+        assertThat(clause.required).containsExactly("timeout");
+        assertThat(clause.excluded).isEmpty();
+    }
+
+    @Test
+    void emptyQueryMatchesEverything() {
+        List<LiveLogQuery.Clause> clauses = LiveLogQuery.parse("  ", null, null).getClauses();
+
+        assertThat(clauses).hasSize(1);
+        assertThat(clauses.get(0).isEmpty()).isTrue();
+    }
+
+    @Test
+    void timeRangeIncludesFromAndExcludesTo() {
+        LiveLogQuery query = LiveLogQuery.parse(null, "1000", "2000");
+
+        assertThat(query.inTimeRange(event(999))).isFalse();
+        assertThat(query.inTimeRange(event(1000))).isTrue();
+        assertThat(query.inTimeRange(event(1999))).isTrue();
+        assertThat(query.inTimeRange(event(2000))).isFalse();
+    }
+
+    @Test
+    void invalidTimeIsRejected() {
+        assertThatThrownBy(() -> LiveLogQuery.parse("timeout", "yesterday", null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static LiveLogQuery.Clause single(String query) {
+        List<LiveLogQuery.Clause> clauses = LiveLogQuery.parse(query, null, null).getClauses();
+        assertThat(clauses).hasSize(1);
+        return clauses.get(0);
+    }
+
+    private static LiveLogEvent event(long timestamp) {
+        return new LiveLogEvent(0, timestamp, Level.INFO, "main", "com.acme.Service", "message", null, null);
+    }
+}
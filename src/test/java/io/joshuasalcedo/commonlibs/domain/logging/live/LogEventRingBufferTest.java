@@ -0,0 +1,120 @@
+package io.joshuasalcedo.commonlibs.domain.logging.live;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogEventRingBufferTest {
+
+    @Test
+    void overwritesTheOldestElementsOnceFull() {
+        LogEventRingBuffer<Long> buffer = new LogEventRingBuffer<>(4);
+        LongStream.range(0, 10).forEach(buffer::append);
+
+        assertThat(buffer.oldestSequence()).isEqualTo(6);
+        assertThat(buffer.nextSequence()).isEqualTo(10);
+        assertThat(buffer.get(5)).isNull();
+        assertThat(buffer.get(6)).isEqualTo(6L);
+        assertThat(buffer.snapshot()).containsExactly(6L, 7L, 8L, 9L);
+    }
+
+    @Test
+    void evictsTheOldestElementsBeyondTheByteBudget() {
+        LogEventRingBuffer<Long> buffer = new LogEventRingBuffer<>(100, 250, element -> 100);
+        LongStream.range(0, 5).forEach(buffer::append);
+
+        assertThat(buffer.retainedBytes()).isEqualTo(200);
+        assertThat(buffer.oldestSequence()).isEqualTo(3);
+        assertThat(buffer.get(2)).isNull();
+        assertThat(buffer.snapshot()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void elementsOverwrittenByCapacityGiveTheirBytesBack() {
+        LogEventRingBuffer<Long> buffer = new LogEventRingBuffer<>(3, 1000, element -> 100);
+        LongStream.range(0, 10).forEach(buffer::append);
+
+        assertThat(buffer.retainedBytes()).isEqualTo(300);
+        assertThat(buffer.oldestSequence()).isEqualTo(7);
+        assertThat(buffer.snapshot()).containsExactly(7L, 8L, 9L);
+    }
+
+    @Test
+    void newestElementIsKeptEvenIfItExceedsTheBudget() {
+        LogEventRingBuffer<Long> buffer = new LogEventRingBuffer<>(10, 100, element -> element);
+        buffer.append(10L);
+        buffer.append(500L);
+
+        assertThat(buffer.snapshot()).containsExactly(500L);
+        assertThat(buffer.retainedBytes()).isEqualTo(500);
+        assertThat(buffer.oldestSequence()).isEqualTo(1);
+
+        // A smaller element evicts it again
+        buffer.append(20L);
+        assertThat(buffer.snapshot()).containsExactly(20L);
+        assertThat(buffer.retainedBytes()).isEqualTo(20);
+    }
+
+    @Test
+    void oldestSequenceNeverMovesBackwards() {
+        LogEventRingBuffer<Long> buffer = new LogEventRingBuffer<>(8, 300, element -> element);
+        long previous = 0;
+        for (long size : new long[]{100, 250, 10, 10, 10, 290, 10, 10, 10, 10, 10, 10, 10, 10, 10}) {
+            buffer.append(size);
+            assertThat(buffer.oldestSequence()).isGreaterThanOrEqualTo(previous);
+            assertThat(buffer.retainedBytes()).isEqualTo(sum(buffer.snapshot()));
+            previous = buffer.oldestSequence();
+        }
+    }
+
+    @Test
+    void concurrentWritersKeepTheAccountingConsistent() throws InterruptedException {
+        LogEventRingBuffer<Long> buffer = new LogEventRingBuffer<>(64, 2000, element -> element);
+        int writers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    buffer.append((long) (i % 97 + 1));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<Long> retained = buffer.snapshot();
+        assertThat(buffer.nextSequence()).isEqualTo(writers * 20_000L);
+        assertThat(buffer.retainedBytes()).isEqualTo(sum(retained));
+        assertThat(buffer.retainedBytes()).isLessThanOrEqualTo(2000);
+        assertThat(retained).isNotEmpty();
+        for (long sequence = 0; sequence < buffer.oldestSequence(); sequence++) {
+            assertThat(buffer.get(sequence)).isNull();
+        }
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThatThrownBy(() -> new LogEventRingBuffer<Long>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long sum(List<Long> sizes) {
+        return sizes.stream().mapToLong(Long::longValue).sum();
+    }
+}